@@ -0,0 +1,96 @@
+package com.hospital.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entities as the controllers return them, with the
+ * {@code @JsonFormat} date patterns and the derived getters. No database involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private Patient patient;
+    private Appointment appointment;
+    private List<Appointment> page;
+
+    @Setup
+    public void prepare() {
+        // Same defaults Spring Boot applies: JavaTimeModule, dates as strings
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        patient = patient(1);
+        appointment = appointment(1, patient);
+        page = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(appointment(i, patient(i)));
+        }
+    }
+
+    @Benchmark
+    public String serializePatient() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(patient);
+    }
+
+    @Benchmark
+    public String serializeAppointment() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(appointment);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String serializeAppointmentPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+
+    private static Patient patient(long id) {
+        Patient patient = new Patient("Maria", "Garcia", "maria.garcia" + id + "@example.com",
+                String.valueOf(5_550_000_000L + id), LocalDate.of(1984, 6, 12), "Female");
+        patient.setId(id);
+        patient.setAddress("42 Elm Street, Springfield");
+        patient.setEmergencyContact("Luis Garcia");
+        patient.setEmergencyPhone("5551234567");
+        patient.setBloodGroup("O+");
+        patient.setAllergies("Penicillin");
+        patient.setCreatedAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        patient.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 14, 5));
+        return patient;
+    }
+
+    private static Appointment appointment(long id, Patient patient) {
+        Appointment appointment = new Appointment(patient, "Dr. Smith", "Cardiology",
+                LocalDateTime.of(2024, 4, 20, 10, 0).plusHours(id), "CONSULTATION");
+        appointment.setId(id);
+        appointment.setSymptoms("Chest pain after exercise");
+        appointment.setNotes("Bring previous ECG results");
+        appointment.setFee(150.0);
+        appointment.setRoomNumber("C-204");
+        appointment.setCreatedAt(LocalDateTime.of(2024, 4, 1, 8, 15));
+        appointment.setUpdatedAt(LocalDateTime.of(2024, 4, 2, 11, 40));
+        return appointment;
+    }
+}
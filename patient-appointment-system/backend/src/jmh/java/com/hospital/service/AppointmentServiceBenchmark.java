@@ -0,0 +1,73 @@
+package com.hospital.service;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AppointmentServiceBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private final String[] doctors = new String[INPUTS];
+    private final LocalDateTime[] busyTimes = new LocalDateTime[INPUTS];
+    private final LocalDateTime[] freeTimes = new LocalDateTime[INPUTS];
+    private Appointment appointment;
+    private int next;
+
+    @Setup
+    public void prepare(SeededApplication application) {
+        Random random = new Random(7);
+        LocalDateTime firstSlot = LocalDate.now().plusDays(1).atTime(8, 0);
+        int slotsPerDoctor = SeededApplication.APPOINTMENTS / SeededApplication.DOCTORS;
+        for (int i = 0; i < INPUTS; i++) {
+            doctors[i] = SeededApplication.doctorName(random.nextInt(SeededApplication.DOCTORS));
+            int slot = random.nextInt(slotsPerDoctor);
+            LocalDateTime booked = firstSlot.plusDays(slot / SeededApplication.SLOTS_PER_DAY)
+                    .plusHours(slot % SeededApplication.SLOTS_PER_DAY);
+            busyTimes[i] = booked.plusMinutes(10);
+            // Seeded slots end at 15:00, so early evening on a booked day is free
+            freeTimes[i] = booked.withHour(17);
+        }
+
+        Patient patient = new Patient();
+        patient.setId(1L);
+        appointment = new Appointment(patient, doctors[0], "Cardiology", LocalDateTime.now().plusDays(3), "CONSULTATION");
+    }
+
+    @Benchmark
+    public boolean isDoctorBusyConflict(SeededApplication application) {
+        int i = next++ & (INPUTS - 1);
+        return application.appointmentService.isDoctorBusy(doctors[i], busyTimes[i], null);
+    }
+
+    @Benchmark
+    public boolean isDoctorBusyFree(SeededApplication application) {
+        int i = next++ & (INPUTS - 1);
+        return application.appointmentService.isDoctorBusy(doctors[i], freeTimes[i], null);
+    }
+
+    @Benchmark
+    public Appointment validateAppointment(SeededApplication application) {
+        application.appointmentService.validateAppointment(appointment);
+        return appointment;
+    }
+}
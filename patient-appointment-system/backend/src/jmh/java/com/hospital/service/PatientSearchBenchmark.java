@@ -0,0 +1,37 @@
+package com.hospital.service;
+
+import com.hospital.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search through the proxied service, including the transaction and the
+ * {@code findAllById} round trip for the ranked ids.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PatientSearchBenchmark {
+
+    // Word prefix, common full name, surname fragment, and a query that matches nothing
+    @Param({"ma", "Mary Smith", "ilso", "zzqx"})
+    public String query;
+
+    @Benchmark
+    public List<Patient> searchPatientsByName(SeededApplication application) {
+        return application.patientService.searchPatientsByName(query, PatientService.DEFAULT_SEARCH_LIMIT);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hospital.service;
+
+import com.hospital.PatientAppointmentSystemApplication;
+import com.hospital.dto.ImportResult;
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The application on embedded H2, seeded through the bulk import services with
+ * {@value #PATIENTS} patients and {@value #APPOINTMENTS} appointments spread over
+ * {@value #DOCTORS} doctors: 500 each at {@value #SLOTS_PER_DAY} a day, so the next
+ * 63 days. Started once per fork.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    static final int PATIENTS = 20_000;
+    static final int APPOINTMENTS = 50_000;
+    static final int DOCTORS = 100;
+    static final int SLOTS_PER_DAY = 8;
+
+    static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Aarav", "Priya", "Wei", "Mei", "Mohammed", "Fatima", "Carlos", "Sofia", "Olga", "Kenji"
+    };
+
+    static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Patel", "Sharma", "Chen", "Wang", "Nakamura", "Kowalski", "Novak", "Okafor", "Haddad", "Larsen"
+    };
+
+    private static final String[] DEPARTMENTS = {
+        "Cardiology", "Neurology", "Orthopedics", "Pediatrics", "Dermatology", "Oncology", "General Medicine"
+    };
+
+    ConfigurableApplicationContext context;
+
+    /** Unproxied service, so benchmarks measure the method and not the transaction advice. */
+    AppointmentService appointmentService;
+
+    /** Proxied service, as the controllers call it. */
+    PatientService patientService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Passed as arguments because default properties lose to application.yml
+        context = new SpringApplicationBuilder(PatientAppointmentSystemApplication.class)
+                .run("--server.port=0",
+                     "--spring.devtools.restart.enabled=false",
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.hospital=WARN",
+                     "--logging.level.org.hibernate.SQL=WARN",
+                     "--logging.level.org.springframework.security=WARN");
+        appointmentService = AopTestUtils.getUltimateTargetObject(context.getBean(AppointmentService.class));
+        patientService = context.getBean(PatientService.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    static String doctorName(int i) {
+        return "Dr. " + LAST_NAMES[i % LAST_NAMES.length] + " " + (i / LAST_NAMES.length + 1);
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        PatientService patients = context.getBean(PatientService.class);
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            Patient patient = new Patient();
+            patient.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            patient.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            patient.setEmail("patient" + i + "@example.com");
+            patient.setPhone(String.valueOf(5_000_000_000L + i));
+            patient.setDateOfBirth(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(30_000)));
+            patient.setGender(random.nextBoolean() ? "Female" : "Male");
+            batch.add(patient);
+            if (batch.size() == 10_000) {
+                check(patients.importPatients(batch), batch.size());
+                batch.clear();
+            }
+        }
+        check(patients.importPatients(batch), batch.size());
+
+        // Hourly slots from 08:00 are further apart than the conflict window, so every row is accepted
+        AppointmentService appointments = context.getBean(AppointmentService.class);
+        LocalDateTime firstSlot = LocalDate.now().plusDays(1).atTime(8, 0);
+        List<Appointment> rows = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            int doctor = i % DOCTORS;
+            int slot = i / DOCTORS;
+            Appointment appointment = new Appointment();
+            Patient patient = new Patient();
+            patient.setId(1L + random.nextInt(PATIENTS));
+            appointment.setPatient(patient);
+            appointment.setDoctorName(doctorName(doctor));
+            appointment.setDepartment(DEPARTMENTS[doctor % DEPARTMENTS.length]);
+            appointment.setAppointmentDateTime(firstSlot.plusDays(slot / SLOTS_PER_DAY).plusHours(slot % SLOTS_PER_DAY));
+            appointment.setAppointmentType("CONSULTATION");
+            rows.add(appointment);
+            if (rows.size() == 10_000) {
+                check(appointments.importAppointments(rows), rows.size());
+                rows.clear();
+            }
+        }
+        check(appointments.importAppointments(rows), rows.size());
+    }
+
+    private static void check(ImportResult result, int expected) {
+        if (result.imported() != expected) {
+            throw new IllegalStateException("Seeding failed: " + result.errors().stream().limit(5).toList());
+        }
+    }
+}
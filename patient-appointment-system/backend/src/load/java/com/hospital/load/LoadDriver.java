@@ -0,0 +1,405 @@
+package com.hospital.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop HTTP load driver for comparing server configurations on the existing
+ * endpoints. Each client sends the next request as soon as the previous one returns.
+ *
+ * <pre>
+ * java src/load/java/com/hospital/load/LoadDriver.java \
+ *     --url http://localhost:8084/api --clients 200 --duration 30 --warmup 10 \
+ *     --mix appointments=30,patient=20,search=15,dashboard=10,book=10
+ * </pre>
+ *
+ * The mix is a list of operation weights; operations left out are not sent. By default
+ * 1000 patients are created up front through the bulk endpoint. With {@code --patients 0}
+ * the driver uses the patients already in the database instead, e.g. ones written by the
+ * {@code seed} profile.
+ */
+public class LoadDriver {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] NAMES = {"Ann", "Ben", "Cara", "Dan", "Eve", "Finn", "Gia", "Hugo", "Ines", "Jon"};
+
+    private static final String[] SEARCHES = {"Ma", "Jo", "Sa", "Da", "Li", "Smi", "Gar", "Lee", "Ann", "Ro"};
+
+    private static final String DEFAULT_MIX =
+        "appointments=25,patients=5,patient=15,patient-appointments=10,search=15," +
+        "today=5,doctors=5,dashboard=10,book=8,cancel=2";
+
+    private static final Pattern ID = Pattern.compile("^\\{\"id\":(\\d+)");
+
+    private static final int OK = 0;
+    private static final int REJECTED = 1;
+    private static final int BUSY = 2;
+    private static final int FAILED = 3;
+
+    private enum Operation {
+        APPOINTMENTS("appointments"),
+        PATIENTS("patients"),
+        PATIENT("patient"),
+        PATIENT_APPOINTMENTS("patient-appointments"),
+        SEARCH("search"),
+        TODAY("today"),
+        UPCOMING("upcoming"),
+        DOCTORS("doctors"),
+        DASHBOARD("dashboard"),
+        BOOK("book"),
+        CANCEL("cancel");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of " +
+                Arrays.stream(values()).map(o -> o.key).toList());
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final Operation[] operations;
+    private final double[] cumulativeWeights;
+    private final long firstPatientId;
+    private final long patientCount;
+    private final List<String> doctors;
+
+    // Bookings made by the run, so cancellations hit appointments that exist and are active
+    private final Queue<Long> booked = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLongArray outcomes = new AtomicLongArray(Operation.values().length * 4);
+
+    LoadDriver(String baseUrl, int patients, Map<Operation, Double> mix) throws Exception {
+        this.baseUrl = baseUrl;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new double[operations.length];
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (patients > 0) {
+            this.firstPatientId = seedPatients(patients);
+            this.patientCount = patients;
+        } else {
+            // Seeded datasets number their patients from 1
+            this.firstPatientId = 1;
+            this.patientCount = Long.parseLong(fetch("/patients/stats/total").trim());
+            if (patientCount == 0) {
+                throw new IllegalStateException("No patients in the database; seed some or pass --patients");
+            }
+        }
+        List<String> existing = parseStrings(fetch("/appointments/doctors"));
+        this.doctors = existing.isEmpty()
+            ? IntStream.range(0, 50).mapToObj(i -> "Dr. Load " + i).toList()
+            : existing;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8084/api");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "100"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int patients = Integer.parseInt(options.getOrDefault("patients", "1000"));
+        Map<Operation, Double> mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+
+        LoadDriver driver = new LoadDriver(url, patients, mix);
+        if (warmup > 0) {
+            driver.run(clients, warmup);
+            driver.resetCounters();
+        }
+        long[] samples = driver.run(clients, duration);
+        driver.report(clients, duration, samples);
+    }
+
+    /**
+     * Returns one sample per request: the operation ordinal in the top byte and the
+     * latency in nanoseconds below it.
+     */
+    long[] run(int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[clients];
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            long[] samples = new long[1 << 16];
+            perClient.add(samples);
+            int client = c;
+            executor.execute(() -> {
+                long[] buffer = samples;
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    Operation operation = next();
+                    long start = System.nanoTime();
+                    send(operation);
+                    if (n == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, n * 2);
+                        perClient.set(client, buffer);
+                    }
+                    buffer[n++] = ((long) operation.ordinal() << 56) | (System.nanoTime() - start);
+                }
+                counts[client] = n;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(perClient.get(c), 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        return all;
+    }
+
+    private Operation next() {
+        double target = ThreadLocalRandom.current().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < operations.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long cancelId = operation == Operation.CANCEL ? booked.poll() : null;
+        HttpRequest request = switch (operation) {
+            case APPOINTMENTS -> get("/appointments?limit=50");
+            case PATIENTS -> get("/patients?limit=50");
+            case PATIENT -> get("/patients/" + randomPatient(random));
+            case PATIENT_APPOINTMENTS -> get("/appointments/patient/" + randomPatient(random));
+            case SEARCH -> get("/patients/search?name=" + SEARCHES[random.nextInt(SEARCHES.length)]);
+            case TODAY -> get("/appointments/today");
+            case UPCOMING -> get("/appointments/upcoming");
+            case DOCTORS -> get("/appointments/doctors");
+            case DASHBOARD -> get("/dashboard/summary");
+            // Nothing booked yet to cancel, so book instead of sending a request that cannot succeed
+            case BOOK, CANCEL -> cancelId != null
+                ? patch("/appointments/" + cancelId + "/cancel")
+                : booking(random);
+        };
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status < 300) {
+                record(operation, OK);
+                if (cancelId == null && (operation == Operation.BOOK || operation == Operation.CANCEL)) {
+                    Matcher matcher = ID.matcher(response.body());
+                    if (matcher.find()) {
+                        booked.add(Long.parseLong(matcher.group(1)));
+                    }
+                }
+            } else if (status == 503) {
+                record(operation, BUSY);
+            } else if (status < 500) {
+                // Booking conflicts are expected under load
+                record(operation, REJECTED);
+            } else {
+                record(operation, FAILED);
+            }
+        } catch (Exception e) {
+            record(operation, FAILED);
+        }
+    }
+
+    private long randomPatient(ThreadLocalRandom random) {
+        return firstPatientId + random.nextLong(patientCount);
+    }
+
+    private HttpRequest booking(ThreadLocalRandom random) {
+        LocalDateTime slot = LocalDateTime.now().plusDays(1 + random.nextInt(365))
+                .withHour(8 + random.nextInt(9)).withMinute(random.nextBoolean() ? 0 : 30)
+                .withSecond(0).withNano(0);
+        String body = "{\"patient\":{\"id\":" + randomPatient(random) + "}," +
+                "\"doctorName\":\"" + doctors.get(random.nextInt(doctors.size())) + "\"," +
+                "\"department\":\"General Medicine\"," +
+                "\"appointmentDateTime\":\"" + DATE_TIME.format(slot) + "\"," +
+                "\"appointmentType\":\"CONSULTATION\"}";
+        return post("/appointments", body);
+    }
+
+    private long seedPatients(int patients) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000);
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < patients; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            String name = NAMES[i % NAMES.length];
+            body.append("{\"firstName\":\"").append(name).append("\",\"lastName\":\"Load").append(i)
+                .append("\",\"email\":\"load").append(runId).append('-').append(i).append("@example.com\"")
+                .append(",\"phone\":\"9").append(String.format("%06d%05d", Long.parseLong(runId), i)).append('"')
+                .append(",\"dateOfBirth\":\"1985-03-14\",\"gender\":\"Other\"}");
+        }
+        body.append(']');
+        HttpResponse<String> response = client.send(post("/patients/bulk", body.toString()),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains("\"imported\":" + patients)) {
+            throw new IllegalStateException("Seeding patients failed: " + response.statusCode() + " " + response.body());
+        }
+        // Nothing else writes while seeding, so the new ids are contiguous; find where they start
+        String json = fetch("/patients/email/load" + runId + "-0@example.com");
+        int idAt = json.indexOf("\"id\":");
+        return Long.parseLong(json.substring(idAt + 5, json.indexOf(',', idAt)));
+    }
+
+    private String fetch(String path) throws Exception {
+        HttpResponse<String> response = client.send(get(path), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " failed: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest patch(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private void record(Operation operation, int outcome) {
+        outcomes.incrementAndGet(operation.ordinal() * 4 + outcome);
+    }
+
+    private void resetCounters() {
+        for (int i = 0; i < outcomes.length(); i++) {
+            outcomes.set(i, 0);
+        }
+    }
+
+    private void report(int clients, int seconds, long[] samples) {
+        System.out.printf("clients=%d duration=%ds requests=%d throughput=%.1f req/s%n",
+                clients, seconds, samples.length, samples.length / (double) seconds);
+        System.out.printf("%-22s %8s %9s %8s %8s %8s %8s %8s %8s %8s%n", "operation", "requests", "req/s",
+                "4xx", "503", "failed", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long[] all = new long[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            all[i] = samples[i] & ((1L << 56) - 1);
+        }
+        for (Operation operation : Operation.values()) {
+            long[] latencies = Arrays.stream(samples)
+                    .filter(sample -> (sample >>> 56) == operation.ordinal())
+                    .map(sample -> sample & ((1L << 56) - 1))
+                    .toArray();
+            if (latencies.length > 0) {
+                int base = operation.ordinal() * 4;
+                printRow(operation.key, latencies, seconds, outcomes.get(base + REJECTED),
+                         outcomes.get(base + BUSY), outcomes.get(base + FAILED));
+            }
+        }
+        long rejected = 0;
+        long busy = 0;
+        long failed = 0;
+        for (int base = 0; base < outcomes.length(); base += 4) {
+            rejected += outcomes.get(base + REJECTED);
+            busy += outcomes.get(base + BUSY);
+            failed += outcomes.get(base + FAILED);
+        }
+        printRow("all", all, seconds, rejected, busy, failed);
+    }
+
+    private static void printRow(String name, long[] latencies, int seconds, long rejected, long busy, long failed) {
+        Arrays.sort(latencies);
+        System.out.printf("%-22s %8d %9.1f %8d %8d %8d %8.1f %8.1f %8.1f %8.1f%n", name, latencies.length,
+                latencies.length / (double) seconds, rejected, busy, failed,
+                percentile(latencies, 50), percentile(latencies, 90),
+                percentile(latencies, 99), percentile(latencies, 100));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static List<String> parseStrings(String jsonArray) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(jsonArray);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    private static Map<Operation, Double> parseMix(String mix) {
+        Map<Operation, Double> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like name=weight, got '" + entry + "'");
+            }
+            double weight = Double.parseDouble(parts[1]);
+            if (weight > 0) {
+                weights.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hospital.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DOCTORS_CACHE = "doctors";
+
+    public static final String DEPARTMENTS_CACHE = "departments";
+
+    public static final String DEPARTMENT_DOCTORS_CACHE = "departmentDoctors";
+}
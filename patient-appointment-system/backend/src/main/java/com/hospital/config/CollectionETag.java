@@ -0,0 +1,20 @@
+package com.hospital.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the named collection (see
+ * {@link com.hospital.service.ResourceVersions}), so it can be tagged with the collection
+ * version and answered with 304 without running. Not for results that also depend on the clock.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CollectionETag {
+
+    String value();
+}
@@ -0,0 +1,51 @@
+package com.hospital.config;
+
+import com.hospital.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional GETs for {@link CollectionETag} handlers before the handler runs.
+ * The version is read before the handler queries, and the handler's reads are kept on
+ * the primary where the version is bumped, so a response is never tagged newer than its data.
+ */
+@Component
+public class CollectionETagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CollectionETag collection = collectionOf(request, handler);
+        if (collection == null) {
+            return true;
+        }
+        // Sets the ETag header, and the 304 status when If-None-Match matches
+        if (new ServletWebRequest(request, response).checkNotModified(resourceVersions.collectionTag(collection.value()))) {
+            return false;
+        }
+        PrimaryReads.pin();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (collectionOf(request, handler) != null) {
+            PrimaryReads.release();
+        }
+    }
+
+    private static CollectionETag collectionOf(HttpServletRequest request, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        return method.getMethodAnnotation(CollectionETag.class);
+    }
+}
@@ -0,0 +1,378 @@
+package com.hospital.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with a synthetic but realistically shaped dataset for load
+ * testing: skewed name and doctor popularity, department sizes, blood group frequencies,
+ * weekday and time-of-day booking peaks, and two years of history ahead of a few months
+ * of upcoming appointments. Rows go in through JDBC batches, so millions take minutes
+ * rather than hours.
+ *
+ * <p>Runs as a database initializer, which makes the in-memory indexes and statistics
+ * warm up from the seeded tables. Does nothing if the database already has patients.
+ */
+@Component
+@Profile("seed")
+public class DatasetSeeder implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final int ROWS_PER_TRANSACTION = 20_000;
+
+    // Must match the allocationSize of the entity sequence generators
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final int HISTORY_MONTHS = 24;
+
+    private static final int UPCOMING_MONTHS = 3;
+
+    // Half-hour slots from 08:00 to 17:30, weighted towards the morning and early afternoon
+    private static final int FIRST_SLOT_HOUR = 8;
+    private static final double[] SLOT_WEIGHTS = {
+        4, 6, 9, 10, 10, 9, 8, 7, 4, 3, 6, 8, 9, 8, 7, 6, 5, 4, 3, 2
+    };
+
+    // Monday to Sunday
+    private static final double[] WEEKDAY_WEIGHTS = {1.25, 1.1, 1.0, 1.0, 0.9, 0.3, 0.05};
+
+    private static final String[] DEPARTMENTS = {
+        "General Medicine", "Pediatrics", "Cardiology", "Orthopedics", "Dermatology",
+        "Neurology", "Surgery", "Oncology", "Psychiatry", "Ophthalmology"
+    };
+    private static final double[] DEPARTMENT_WEIGHTS = {28, 15, 11, 10, 8, 7, 7, 5, 5, 4};
+
+    private static final String[] FEMALE_NAMES = {
+        "Mary", "Patricia", "Jennifer", "Linda", "Elizabeth", "Barbara", "Susan", "Jessica",
+        "Sarah", "Karen", "Nancy", "Lisa", "Betty", "Margaret", "Sandra", "Ashley", "Emily",
+        "Donna", "Michelle", "Carol", "Amanda", "Melissa", "Deborah", "Stephanie", "Laura"
+    };
+    private static final String[] MALE_NAMES = {
+        "James", "Robert", "John", "Michael", "David", "William", "Richard", "Joseph",
+        "Thomas", "Charles", "Christopher", "Daniel", "Matthew", "Anthony", "Mark", "Donald",
+        "Steven", "Paul", "Andrew", "Joshua", "Kenneth", "Kevin", "Brian", "George", "Edward"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis",
+        "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+        "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White",
+        "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young",
+        "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores"
+    };
+
+    private static final String[] BLOOD_GROUPS = {"O+", "A+", "B+", "AB+", "O-", "A-", "B-", "AB-"};
+    private static final double[] BLOOD_GROUP_WEIGHTS = {38, 34, 9, 3, 7, 6, 2, 1};
+
+    private static final String[] STREETS = {
+        "Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Pine St", "Elm St", "Park Ave",
+        "Lake Rd", "Hill St", "River Rd", "Church St", "Mill Ln"
+    };
+    private static final String[] CITIES = {
+        "Springfield", "Riverside", "Franklin", "Greenville", "Bristol", "Clinton", "Fairview",
+        "Salem", "Madison", "Georgetown"
+    };
+    private static final String[] ALLERGIES = {"Penicillin", "Peanuts", "Latex", "Pollen", "Shellfish", "Aspirin"};
+
+    private static final String[] TYPES = {"CONSULTATION", "FOLLOW_UP", "ROUTINE_CHECKUP", "EMERGENCY", "SURGERY"};
+    private static final double[] TYPE_WEIGHTS = {48, 30, 14, 5, 3};
+    private static final double[] TYPE_FEES = {150, 90, 120, 300, 2500};
+
+    private static final String[] PAST_STATUSES = {"COMPLETED", "CANCELLED", "NO_SHOW"};
+    private static final double[] PAST_STATUS_WEIGHTS = {80, 12, 8};
+    private static final String[] UPCOMING_STATUSES = {"SCHEDULED", "CONFIRMED", "CANCELLED"};
+    private static final double[] UPCOMING_STATUS_WEIGHTS = {65, 27, 8};
+
+    private static final String[] SYMPTOMS = {
+        "Headache", "Chest pain", "Back pain", "Fever and cough", "Skin rash", "Joint pain",
+        "Fatigue", "Shortness of breath", "Dizziness", "Annual review"
+    };
+
+    private static final String INSERT_PATIENT =
+        "INSERT INTO patients (id, first_name, last_name, email, phone, date_of_birth, gender, address, " +
+        "emergency_contact, emergency_phone, allergies, blood_group, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_APPOINTMENT =
+        "INSERT INTO appointments (id, patient_id, doctor_name, department, appointment_datetime, " +
+        "appointment_type, status, symptoms, fee, room_number, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${seed.patients:100000}")
+    private int patientCount;
+
+    @Value("${seed.appointments:500000}")
+    private int appointmentCount;
+
+    @Value("${seed.doctors:200}")
+    private int doctorCount;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    // The shared JdbcTemplate waits for database initializers, so this one is our own
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (doctorCount < 1 || doctorCount > FEMALE_NAMES.length * LAST_NAMES.length) {
+            throw new IllegalArgumentException("seed.doctors must be between 1 and " +
+                                               FEMALE_NAMES.length * LAST_NAMES.length);
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Database already has {} patients, skipping dataset seeding", existing);
+            return;
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        seedPatients(random, now);
+        int appointments = seedAppointments(random, now);
+        advanceSequence("patients_seq", patientCount);
+        advanceSequence("appointments_seq", appointments);
+        logger.info("Seeded {} patients and {} appointments across {} doctors in {} s",
+                    patientCount, appointments, doctorCount, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void seedPatients(SplittableRandom random, LocalDateTime now) {
+        LocalDateTime registrationStart = now.minusMonths(HISTORY_MONTHS + 12);
+        long registrationSpan = ChronoUnit.MINUTES.between(registrationStart, now);
+        double[] firstNameWeights = cumulative(rankWeights(FEMALE_NAMES.length));
+        double[] lastNameWeights = cumulative(rankWeights(LAST_NAMES.length));
+        double[] bloodGroupWeights = cumulative(BLOOD_GROUP_WEIGHTS);
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_TRANSACTION);
+        for (int id = 1; id <= patientCount; id++) {
+            double g = random.nextDouble();
+            String gender = g < 0.51 ? "Female" : g < 0.99 ? "Male" : "Other";
+            String[] firstNames = "Female".equals(gender) || ("Other".equals(gender) && random.nextBoolean())
+                ? FEMALE_NAMES : MALE_NAMES;
+            String firstName = firstNames[pick(random, firstNameWeights)];
+            String lastName = LAST_NAMES[pick(random, lastNameWeights)];
+            // Registrations spread over the period in id order, as they would have happened
+            LocalDateTime createdAt = registrationStart
+                .plusMinutes(registrationSpan * (id - 1) / patientCount + random.nextInt(60));
+            rows.add(new Object[] {
+                id,
+                firstName,
+                lastName,
+                (firstName + "." + lastName + "." + id + "@example.com").toLowerCase(),
+                String.format("5%09d", id),
+                dateOfBirth(random, now.toLocalDate()),
+                gender,
+                (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)] + ", " +
+                    CITIES[random.nextInt(CITIES.length)],
+                MALE_NAMES[random.nextInt(MALE_NAMES.length)] + " " + lastName,
+                String.format("6%09d", id),
+                random.nextDouble() < 0.2 ? ALLERGIES[random.nextInt(ALLERGIES.length)] : null,
+                BLOOD_GROUPS[pick(random, bloodGroupWeights)],
+                createdAt,
+                createdAt
+            });
+            if (rows.size() == ROWS_PER_TRANSACTION) {
+                insert(INSERT_PATIENT, rows, "patients", id);
+            }
+        }
+        insert(INSERT_PATIENT, rows, "patients", patientCount);
+    }
+
+    private int seedAppointments(SplittableRandom random, LocalDateTime now) {
+        LocalDate firstDay = now.toLocalDate().minusMonths(HISTORY_MONTHS);
+        int days = (int) ChronoUnit.DAYS.between(firstDay, now.toLocalDate().plusMonths(UPCOMING_MONTHS));
+
+        String[] doctorNames = new String[doctorCount];
+        String[] doctorDepartments = new String[doctorCount];
+        double[] departmentWeights = cumulative(DEPARTMENT_WEIGHTS);
+        int pairs = FEMALE_NAMES.length * LAST_NAMES.length;
+        for (int d = 0; d < doctorCount; d++) {
+            // Stepping by a number coprime to the pair count visits each name pair once
+            int pair = (int) ((d * 7919L) % pairs);
+            String[] firstNames = d % 2 == 0 ? FEMALE_NAMES : MALE_NAMES;
+            doctorNames[d] = "Dr. " + firstNames[pair % firstNames.length] + " " + LAST_NAMES[pair / firstNames.length];
+            doctorDepartments[d] = DEPARTMENTS[pick(random, departmentWeights)];
+        }
+        // A few doctors are much busier than the rest
+        double[] doctorWeights = cumulative(rankWeights(doctorCount));
+        double[] dayWeights = new double[days];
+        for (int day = 0; day < days; day++) {
+            dayWeights[day] = WEEKDAY_WEIGHTS[firstDay.plusDays(day).getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()];
+        }
+        dayWeights = cumulative(dayWeights);
+        double[] slotWeights = cumulative(SLOT_WEIGHTS);
+        double[] typeWeights = cumulative(TYPE_WEIGHTS);
+        double[] pastStatusWeights = cumulative(PAST_STATUS_WEIGHTS);
+        double[] upcomingStatusWeights = cumulative(UPCOMING_STATUS_WEIGHTS);
+
+        BitSet[] occupied = new BitSet[doctorCount];
+        for (int d = 0; d < doctorCount; d++) {
+            occupied[d] = new BitSet(days * SLOT_WEIGHTS.length);
+        }
+
+        List<Object[]> rows = new ArrayList<>(ROWS_PER_TRANSACTION);
+        int id = 0;
+        long attempts = 0;
+        long maxAttempts = 20L * appointmentCount;
+        while (id < appointmentCount) {
+            if (++attempts > maxAttempts) {
+                throw new IllegalArgumentException("Only " + id + " of " + appointmentCount +
+                    " appointments fit the schedules of " + doctorCount + " doctors; raise seed.doctors");
+            }
+            int doctor = pick(random, doctorWeights);
+            int day = pick(random, dayWeights);
+            int slot = pick(random, slotWeights);
+            int index = day * SLOT_WEIGHTS.length + slot;
+            LocalDateTime start = firstDay.plusDays(day).atTime(FIRST_SLOT_HOUR + slot / 2, (slot % 2) * 30);
+            boolean upcoming = start.isAfter(now);
+            BitSet schedule = occupied[doctor];
+            // Upcoming bookings are active, so they also keep the neighbouring slots clear
+            if (schedule.get(index) || (upcoming && (schedule.get(Math.max(0, index - 1)) || schedule.get(index + 1)))) {
+                continue;
+            }
+            schedule.set(index);
+            id++;
+
+            int type = pick(random, typeWeights);
+            String status = upcoming
+                ? UPCOMING_STATUSES[pick(random, upcomingStatusWeights)]
+                : PAST_STATUSES[pick(random, pastStatusWeights)];
+            LocalDateTime createdAt = start.minusDays(1 + random.nextInt(45)).minusMinutes(random.nextInt(600));
+            if (createdAt.isAfter(now)) {
+                createdAt = now;
+            }
+            rows.add(new Object[] {
+                id,
+                patientId(random),
+                doctorNames[doctor],
+                doctorDepartments[doctor],
+                start,
+                TYPES[type],
+                status,
+                SYMPTOMS[random.nextInt(SYMPTOMS.length)],
+                TYPE_FEES[type],
+                String.valueOf(100 + (doctor % 40)),
+                createdAt,
+                upcoming ? createdAt : start.plusMinutes(30)
+            });
+            if (rows.size() == ROWS_PER_TRANSACTION) {
+                insert(INSERT_APPOINTMENT, rows, "appointments", id);
+            }
+        }
+        insert(INSERT_APPOINTMENT, rows, "appointments", id);
+        return id;
+    }
+
+    private void insert(String sql, List<Object[]> rows, String table, int inserted) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+            }
+        });
+        rows.clear();
+        if (inserted % 100_000 < ROWS_PER_TRANSACTION) {
+            logger.info("Seeded {} {}", inserted, table);
+        }
+    }
+
+    // Hands out ids after the seeded ones; the pooled generators read the top of their first block
+    private void advanceSequence(String sequence, int maxId) {
+        long next = maxId + ID_ALLOCATION_SIZE;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equalsIgnoreCase(product)) {
+            jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", next);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+
+    private static LocalDate dateOfBirth(SplittableRandom random, LocalDate today) {
+        double band = random.nextDouble();
+        int age = band < 0.2 ? random.nextInt(18) : band < 0.8 ? 18 + random.nextInt(47) : 65 + random.nextInt(31);
+        return today.minusYears(age).minusDays(random.nextInt(365));
+    }
+
+    // A tenth of the patients are frequent visitors and book a third of the appointments
+    private int patientId(SplittableRandom random) {
+        int frequent = Math.max(1, patientCount / 10);
+        return 1 + (random.nextInt(3) == 0 ? random.nextInt(frequent) : random.nextInt(patientCount));
+    }
+
+    // Popularity falling off with rank, like name frequencies or doctor caseloads
+    private static double[] rankWeights(int count) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 / Math.sqrt(i + 1);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] totals = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            totals[i] = sum;
+        }
+        return totals;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulativeWeights) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, target);
+        return Math.min(index >= 0 ? index + 1 : -index - 1, cumulativeWeights.length - 1);
+    }
+
+    /**
+     * Registers the seeder as a database initializer, so beans marked
+     * {@code @DependsOnDatabaseInitialization} start after it.
+     */
+    public static class InitializerDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+        @Override
+        protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+            return Set.of(DatasetSeeder.class);
+        }
+
+        // Initializers from earlier detectors run first, and the seeder needs Hibernate's schema
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
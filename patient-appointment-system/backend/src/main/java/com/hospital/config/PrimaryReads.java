@@ -0,0 +1,46 @@
+package com.hospital.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the current thread's read-only transactions on the primary while replica routing
+ * is enabled (see {@link ReplicaDataSourceConfig}). For reads whose result is kept on the
+ * assumption that it is current: collection ETags, which are versioned on the primary,
+ * and the reference data caches. Pins nest; without a replica they have no effect.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<int[]> depth = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        pin();
+        try {
+            return reads.get();
+        } finally {
+            release();
+        }
+    }
+
+    public static void pin() {
+        int[] pins = depth.get();
+        if (pins == null) {
+            depth.set(pins = new int[1]);
+        }
+        pins[0]++;
+    }
+
+    public static void release() {
+        int[] pins = depth.get();
+        if (pins != null && --pins[0] <= 0) {
+            depth.remove();
+        }
+    }
+
+    public static boolean isPinned() {
+        int[] pins = depth.get();
+        return pins != null && pins[0] > 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hospital.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/queries}: recent slow statements plus Hibernate's running totals and
+ * the queries that have used the most time overall. DELETE starts a fresh measurement.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+
+    private static final int TOP_QUERIES = 20;
+
+    @Autowired
+    private SlowQueryRecorder recorder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public record QueryTotals(String query, long executions, long rows, long totalMs, long averageMs, long maxMs) {
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        Statistics statistics = statistics();
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        hibernate.put("sessionsOpened", statistics.getSessionOpenCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+        hibernate.put("statementsPrepared", statistics.getPrepareStatementCount());
+        hibernate.put("queryExecutions", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("entityLoads", statistics.getEntityLoadCount());
+        hibernate.put("entityFetches", statistics.getEntityFetchCount());
+        hibernate.put("entityInserts", statistics.getEntityInsertCount());
+        hibernate.put("entityUpdates", statistics.getEntityUpdateCount());
+        hibernate.put("entityDeletes", statistics.getEntityDeleteCount());
+        hibernate.put("collectionFetches", statistics.getCollectionFetchCount());
+        hibernate.put("flushes", statistics.getFlushCount());
+        hibernate.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        hibernate.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        hibernate.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        hibernate.put("topQueriesByTotalTime", topQueries(statistics));
+
+        Map<String, Object> slow = new LinkedHashMap<>();
+        slow.put("thresholdMs", recorder.getThresholdMs());
+        slow.put("recorded", recorder.getRecordedCount());
+        slow.put("recent", recorder.recent());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowQueries", slow);
+        result.put("hibernate", hibernate);
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.clear();
+        statistics().clear();
+    }
+
+    private List<QueryTotals> topQueries(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return new QueryTotals(query, stats.getExecutionCount(), stats.getExecutionRowCount(),
+                            stats.getExecutionTotalTime(), stats.getExecutionAvgTime(), stats.getExecutionMaxTime());
+                })
+                .sorted(Comparator.comparingLong(QueryTotals::totalMs).reversed())
+                .limit(TOP_QUERIES)
+                .toList();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,129 @@
+package com.hospital.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica and everything else, Flyway and the seeder
+ * included, to the primary. Reads pinned with {@link PrimaryReads} stay on the primary too.
+ * The routing pool is wrapped in a lazy proxy because the
+ * transaction manager asks for a connection before it marks the transaction read-only;
+ * the real connection is only taken, and the target chosen, at the first statement.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARY = "primaryDataSource";
+
+    public static final String REPLICA = "replicaDataSource";
+
+    @Bean(PRIMARY)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(REPLICA)
+    @ConfigurationProperties("replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY) DataSource primary, @Qualifier(REPLICA) DataSource replica,
+                                 ReplicaLagMonitor monitor, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource(monitor, entityManagerFactory);
+        routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // With open-in-view the session outlives the request's first transaction; holding its
+    // connection would keep a later read-write transaction on the replica
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    static class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+        private final ReplicaLagMonitor monitor;
+
+        // Looked up on use: the entity manager factory itself depends on this data source
+        private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+        ReadOnlyRoutingDataSource(ReplicaLagMonitor monitor, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+            this.monitor = monitor;
+            this.entityManagerFactory = entityManagerFactory;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryReads.isPinned()
+                    || !monitor.isReplicaUsable()) {
+                return Target.PRIMARY;
+            }
+            keepOutOfSecondLevelCache();
+            return Target.REPLICA;
+        }
+
+        // Entities read from the replica may be up to max-lag old; the session still reads
+        // the second-level cache but puts nothing in it that would outlive the lag
+        private void keepOutOfSecondLevelCache() {
+            EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+            if (factory == null
+                    || !(TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder holder)) {
+                return;
+            }
+            Session session = holder.getEntityManager().unwrap(Session.class);
+            CacheMode previous = session.getCacheMode();
+            if (!previous.isPutEnabled()) {
+                return;
+            }
+            session.setCacheMode(CacheMode.GET);
+            // With open-in-view the session outlives the transaction
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) {
+                        session.setCacheMode(previous);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.hospital.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Decides whether read-only transactions may use the replica. The primary's heartbeat
+ * row is stamped on every check and read back from the replica; while the copy there is
+ * older than the allowed lag, or the replica cannot be read, reads stay on the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int HEARTBEAT_ID = 1;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.PRIMARY)
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.REPLICA)
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${replica.max-lag:PT5S}")
+    private Duration maxLag;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    // Reads start on the primary until the first check has seen the replica
+    private volatile boolean replicaUsable;
+
+    private volatile Duration lag;
+
+    private boolean checked;
+
+    @PostConstruct
+    void init() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        Gauge.builder("replica.lag", this, monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis() / 1000.0)
+                .description("Age of the primary's heartbeat as seen on the replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("replica.in.use", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("1 while read-only transactions are sent to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${replica.heartbeat-interval:PT1S}")
+    public void check() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (DataAccessException e) {
+            // Another instance may have inserted the row first; its beat serves as well
+            logger.debug("Replica heartbeat not written: {}", e.getMessage());
+        }
+
+        boolean usable;
+        try {
+            LocalDateTime seen = replica.query("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                    rs -> rs.next() ? rs.getObject(1, LocalDateTime.class) : null, HEARTBEAT_ID);
+            lag = seen == null ? null : Duration.between(seen, LocalDateTime.now());
+            usable = lag != null && lag.compareTo(maxLag) <= 0;
+        } catch (DataAccessException e) {
+            lag = null;
+            usable = false;
+            if (replicaUsable) {
+                logger.warn("Replica unreachable: {}", e.getMessage());
+            }
+        }
+
+        if (usable != replicaUsable || !checked) {
+            if (usable) {
+                logger.info("Replica lag {} ms, sending read-only transactions to the replica", lag.toMillis());
+            } else {
+                logger.warn("Replica not usable (lag {}, limit {}), sending read-only transactions to the primary",
+                        lag == null ? "unknown" : lag.toMillis() + " ms", maxLag);
+            }
+            replicaUsable = usable;
+            checked = true;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Duration getLag() {
+        return lag;
+    }
+}
@@ -0,0 +1,116 @@
+package com.hospital.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests handled at once. With virtual threads there is no
+ * worker pool to do this, and every waiting request would otherwise queue inside
+ * the connection pool until its timeout. Requests that cannot get a permit within
+ * the acquire timeout are rejected with 503. A request that goes async, such as a
+ * streamed export, keeps its permit until the async processing completes.
+ */
+@Component
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true")
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+
+    @Value("${bulkhead.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int maxConcurrentRequests;
+
+    @Value("${bulkhead.acquire-timeout:PT1S}")
+    private Duration acquireTimeout;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks must answer even when the application is saturated. Live update
+        // streams hold no connection and are capped by live-updates.max-subscribers
+        String path = request.getServletPath();
+        return path.startsWith("/actuator") || path.startsWith("/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().write("Server is busy, please retry");
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Async dispatches skip this filter, so the listener hands the permit back
+                request.getAsyncContext().addListener(new ReleaseWhenDone());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    // Tomcat skips onComplete when the client has gone away, so errors and timeouts release too
+    private class ReleaseWhenDone implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle needs the listener again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
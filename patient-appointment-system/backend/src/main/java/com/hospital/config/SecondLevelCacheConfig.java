@@ -0,0 +1,73 @@
+package com.hospital.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regions of Hibernate's second-level cache, held in Caffeine through JCache. Each region
+ * is created here with its own size bound and time to live, and Hibernate is set to fail
+ * on any region it needs that is not declared, rather than create an unbounded one.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String PATIENTS_REGION = "patients";
+
+    public static final String PATIENT_EMAILS_REGION = "patient-emails";
+
+    @Value("${second-level-cache.patients.maximum-size:10000}")
+    private long patientsMaximumSize;
+
+    @Value("${second-level-cache.patients.ttl:PT30M}")
+    private Duration patientsTtl;
+
+    @Value("${second-level-cache.queries.maximum-size:2000}")
+    private long queriesMaximumSize;
+
+    @Value("${second-level-cache.queries.ttl:PT10M}")
+    private Duration queriesTtl;
+
+    // A manager of its own: the provider's default one is shared by every context in the JVM,
+    // and a second context, as in tests, would find the regions already created
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(PATIENTS_REGION, region(patientsMaximumSize, patientsTtl));
+        cacheManager.createCache(PATIENT_EMAILS_REGION, region(patientsMaximumSize, patientsTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaximumSize, queriesTtl));
+        // Must never lose entries while a query result that depends on them is cached
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hospital.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+import javax.cache.CacheManager;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/entitycache}: hit, miss and put counts per second-level cache region.
+ * DELETE empties every region, DELETE {@code /{region}} just one, e.g. after patients
+ * were changed directly in the database.
+ */
+@Component
+@Endpoint(id = "entitycache")
+public class SecondLevelCacheEndpoint {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    public record RegionStatistics(String region, long hits, long misses, long puts, long entries) {
+    }
+
+    @ReadOperation
+    public Map<String, Object> regions() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<RegionStatistics> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                    return new RegionStatistics(region, stats.getHitCount(), stats.getMissCount(),
+                            stats.getPutCount(), entries(region));
+                })
+                .toList();
+
+        Map<String, Object> naturalIds = new LinkedHashMap<>();
+        naturalIds.put("hits", statistics.getNaturalIdCacheHitCount());
+        naturalIds.put("misses", statistics.getNaturalIdCacheMissCount());
+        naturalIds.put("puts", statistics.getNaturalIdCachePutCount());
+        naturalIds.put("queries", statistics.getNaturalIdQueryExecutionCount());
+
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("regions", regions);
+        result.put("naturalIds", naturalIds);
+        result.put("queryCache", queryCache);
+        return result;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @DeleteOperation
+    public void evict(@Selector String region) {
+        sessionFactory().getCache().evictRegion(region);
+    }
+
+    // JCache has no size, so Hibernate cannot report one; ask Caffeine underneath
+    private long entries(String region) {
+        javax.cache.Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        return cache == null ? 0 : cache.unwrap(Cache.class).estimatedSize();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,122 @@
+package com.hospital.config;
+
+import jakarta.annotation.PostConstruct;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the most recent statements that took longer than the threshold in a fixed-size
+ * ring buffer. Fast statements cost one comparison; only slow ones are normalized and
+ * have their caller looked up, so this can stay on in production where SQL logging cannot.
+ */
+@Component
+public class SlowQueryRecorder implements QueryExecutionListener {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String APPLICATION_PACKAGE = "com.hospital.";
+
+    public record SlowQuery(LocalDateTime executedAt, long durationMs, String sql, int binds,
+                            int batchSize, boolean success, String caller) {
+    }
+
+    @Value("${slow-queries.threshold:PT0.1S}")
+    private Duration threshold;
+
+    @Value("${slow-queries.capacity:200}")
+    private int capacity;
+
+    private long thresholdMs;
+
+    private AtomicReferenceArray<SlowQuery> entries;
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        thresholdMs = threshold.toMillis();
+        entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs || queryInfoList.isEmpty()) {
+            return;
+        }
+        QueryInfo first = queryInfoList.get(0);
+        int binds = first.getParametersList().isEmpty() ? 0 : first.getParametersList().get(0).size();
+        int batchSize = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), first.getParametersList().size()) : 1;
+        SlowQuery query = new SlowQuery(LocalDateTime.now(), execInfo.getElapsedTime(), normalize(first.getQuery()),
+                binds, batchSize, execInfo.isSuccess(), caller());
+        long slot = recorded.getAndIncrement();
+        entries.set((int) (slot % entries.length()), query);
+    }
+
+    /**
+     * Recorded slow queries, newest first.
+     */
+    public List<SlowQuery> recent() {
+        long total = recorded.get();
+        int count = (int) Math.min(total, entries.length());
+        List<SlowQuery> recent = new ArrayList<>(count);
+        for (long i = total - 1; i >= total - count; i--) {
+            SlowQuery query = entries.get((int) (i % entries.length()));
+            if (query != null) {
+                recent.add(query);
+            }
+        }
+        return recent;
+    }
+
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        recorded.set(0);
+    }
+
+    // Literal values and IN-list lengths would otherwise make one statement look like many
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    // Innermost application frame: the service, listener or job that ran the query
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().equals(SlowQueryRecorder.class.getName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse(null));
+    }
+}
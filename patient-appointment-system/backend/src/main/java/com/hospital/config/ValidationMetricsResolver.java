@@ -0,0 +1,36 @@
+package com.hospital.config;
+
+import com.hospital.service.ServiceMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Counts request bodies rejected by {@code @Valid} before they reach a service, then
+ * leaves the response to the default resolvers.
+ */
+@Component
+public class ValidationMetricsResolver implements HandlerExceptionResolver, Ordered {
+
+    @Autowired
+    private ServiceMetrics metrics;
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception ex) {
+        if (ex instanceof MethodArgumentNotValidException invalid && invalid.getTarget() != null) {
+            metrics.validationRejected(invalid.getTarget().getClass().getSimpleName().toLowerCase(), "invalid");
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
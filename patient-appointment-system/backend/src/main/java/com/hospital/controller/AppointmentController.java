@@ -1,14 +1,27 @@
 package com.hospital.controller;
 
+import com.hospital.config.CollectionETag;
+import com.hospital.dto.BulkStatusRequest;
+import com.hospital.dto.BulkStatusResult;
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.DoctorAvailability;
+import com.hospital.dto.ExportFormat;
+import com.hospital.dto.ImportResult;
 import com.hospital.model.Appointment;
 import com.hospital.model.Appointment.AppointmentStatus;
 import com.hospital.service.AppointmentService;
+import com.hospital.service.AvailabilityService;
+import com.hospital.service.ExportService;
+import com.hospital.service.ResourceVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,22 +34,53 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
     @GetMapping
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
+    public ResponseEntity<?> getAllAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
         try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
-            return new ResponseEntity<>(appointments, HttpStatus.OK);
+            CursorPage<?> page = fields == null
+                    ? appointmentService.getAppointmentsPage(cursor, limit)
+                    : appointmentService.getAppointmentsPage(cursor, limit, fields);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> exportService.exportAppointments(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
         try {
             Optional<Appointment> appointment = appointmentService.getAppointmentById(id);
             if (appointment.isPresent()) {
-                return new ResponseEntity<>(appointment.get(), HttpStatus.OK);
+                // A matching If-None-Match turns this into 304 without a body
+                return ResponseEntity.ok().eTag(ResourceVersions.tag(appointment.get())).body(appointment.get());
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -46,6 +90,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/patient/{patientId}")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<Appointment>> getAppointmentsByPatient(@PathVariable Long patientId) {
         try {
             List<Appointment> appointments = appointmentService.getAppointmentsByPatientId(patientId);
@@ -56,6 +101,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/doctor/{doctorName}")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<Appointment>> getAppointmentsByDoctor(@PathVariable String doctorName) {
         try {
             List<Appointment> appointments = appointmentService.getAppointmentsByDoctor(doctorName);
@@ -66,6 +112,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/department/{department}")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<Appointment>> getAppointmentsByDepartment(@PathVariable String department) {
         try {
             List<Appointment> appointments = appointmentService.getAppointmentsByDepartment(department);
@@ -76,6 +123,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/status/{status}")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<Appointment>> getAppointmentsByStatus(@PathVariable AppointmentStatus status) {
         try {
             List<Appointment> appointments = appointmentService.getAppointmentsByStatus(status);
@@ -106,6 +154,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/between")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<Appointment>> getAppointmentsBetween(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
@@ -117,7 +166,27 @@ public class AppointmentController {
         }
     }
     
+    // Not tagged: slots drop out as the day goes on
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(
+            @RequestParam(required = false) String doctor,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate start = from != null ? from : LocalDate.now();
+            LocalDate end = to != null ? to : start.plusDays(6);
+            List<DoctorAvailability> availability = availabilityService.getAvailability(doctor, department, start, end);
+            return new ResponseEntity<>(availability, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     @GetMapping("/doctors")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<String>> getAllDoctors() {
         try {
             List<String> doctors = appointmentService.getAllDoctors();
@@ -128,6 +197,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/departments")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<List<String>> getAllDepartments() {
         try {
             List<String> departments = appointmentService.getAllDepartments();
@@ -149,6 +219,18 @@ public class AppointmentController {
         }
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<?> importAppointments(@RequestBody List<Appointment> rows) {
+        try {
+            ImportResult result = appointmentService.importAppointments(rows);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateAppointment(@PathVariable Long id, @Valid @RequestBody Appointment appointmentDetails) {
         try {
@@ -161,6 +243,18 @@ public class AppointmentController {
         }
     }
     
+    @PatchMapping("/status")
+    public ResponseEntity<?> updateAppointmentStatuses(@RequestBody BulkStatusRequest request) {
+        try {
+            BulkStatusResult result = appointmentService.updateAppointmentStatuses(request);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>("Failed to update appointment statuses", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updateAppointmentStatus(@PathVariable Long id, @RequestParam AppointmentStatus status) {
         try {
@@ -198,6 +292,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/stats/total")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<Long> getTotalAppointments() {
         try {
             long totalAppointments = appointmentService.getTotalAppointments();
@@ -208,6 +303,7 @@ public class AppointmentController {
     }
     
     @GetMapping("/stats/status/{status}")
+    @CollectionETag(ResourceVersions.APPOINTMENTS)
     public ResponseEntity<Long> getAppointmentCountByStatus(@PathVariable AppointmentStatus status) {
         try {
             long count = appointmentService.getAppointmentCountByStatus(status);
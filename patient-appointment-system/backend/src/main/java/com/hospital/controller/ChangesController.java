@@ -0,0 +1,31 @@
+package com.hospital.controller;
+
+import com.hospital.dto.ChangeSet;
+import com.hospital.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/changes")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:5500", "http://localhost:5500", "http://localhost:8084"})
+public class ChangesController {
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @GetMapping
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + ChangeFeedService.DEFAULT_LIMIT) int limit) {
+        try {
+            ChangeSet changes = changeFeedService.getChanges(since, limit);
+            return new ResponseEntity<>(changes, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hospital.controller;
+
+import com.hospital.service.LiveUpdates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:5500", "http://localhost:5500", "http://localhost:8084"})
+public class LiveUpdatesController {
+    
+    @Autowired
+    private LiveUpdates liveUpdates;
+    
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) String department,
+                                                @RequestParam(required = false) String doctor) {
+        try {
+            return new ResponseEntity<>(liveUpdates.subscribe(department, doctor), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.hospital.controller;
 
+import com.hospital.config.CollectionETag;
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.ExportFormat;
+import com.hospital.dto.ImportResult;
 import com.hospital.model.Patient;
+import com.hospital.service.ExportService;
 import com.hospital.service.PatientService;
+import com.hospital.service.ResourceVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
 import java.util.List;
@@ -19,22 +27,50 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
     
+    @Autowired
+    private ExportService exportService;
+    
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
+    @CollectionETag(ResourceVersions.PATIENTS)
+    public ResponseEntity<?> getAllPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
         try {
-            List<Patient> patients = patientService.getAllPatients();
-            return new ResponseEntity<>(patients, HttpStatus.OK);
+            CursorPage<?> page = fields == null
+                    ? patientService.getPatientsPage(cursor, limit)
+                    : patientService.getPatientsPage(cursor, limit, fields);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPatients(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> exportService.exportPatients(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"patients." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable Long id) {
         try {
             Optional<Patient> patient = patientService.getPatientById(id);
             if (patient.isPresent()) {
-                return new ResponseEntity<>(patient.get(), HttpStatus.OK);
+                // A matching If-None-Match turns this into 304 without a body
+                return ResponseEntity.ok().eTag(ResourceVersions.tag(patient.get())).body(patient.get());
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -44,9 +80,12 @@ public class PatientController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Patient>> searchPatients(@RequestParam String name) {
+    @CollectionETag(ResourceVersions.PATIENTS)
+    public ResponseEntity<List<Patient>> searchPatients(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_SEARCH_LIMIT) int limit) {
         try {
-            List<Patient> patients = patientService.searchPatientsByName(name);
+            List<Patient> patients = patientService.searchPatientsByName(name, limit);
             return new ResponseEntity<>(patients, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -58,7 +97,7 @@ public class PatientController {
         try {
             Optional<Patient> patient = patientService.getPatientByEmail(email);
             if (patient.isPresent()) {
-                return new ResponseEntity<>(patient.get(), HttpStatus.OK);
+                return ResponseEntity.ok().eTag(ResourceVersions.tag(patient.get())).body(patient.get());
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -72,7 +111,7 @@ public class PatientController {
         try {
             Optional<Patient> patient = patientService.getPatientByPhone(phone);
             if (patient.isPresent()) {
-                return new ResponseEntity<>(patient.get(), HttpStatus.OK);
+                return ResponseEntity.ok().eTag(ResourceVersions.tag(patient.get())).body(patient.get());
             } else {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
@@ -82,6 +121,7 @@ public class PatientController {
     }
     
     @GetMapping("/gender/{gender}")
+    @CollectionETag(ResourceVersions.PATIENTS)
     public ResponseEntity<List<Patient>> getPatientsByGender(@PathVariable String gender) {
         try {
             List<Patient> patients = patientService.getPatientsByGender(gender);
@@ -92,6 +132,7 @@ public class PatientController {
     }
     
     @GetMapping("/blood-group/{bloodGroup}")
+    @CollectionETag(ResourceVersions.PATIENTS)
     public ResponseEntity<List<Patient>> getPatientsByBloodGroup(@PathVariable String bloodGroup) {
         try {
             List<Patient> patients = patientService.getPatientsByBloodGroup(bloodGroup);
@@ -113,6 +154,18 @@ public class PatientController {
         }
     }
     
+    @PostMapping("/bulk")
+    public ResponseEntity<?> importPatients(@RequestBody List<Patient> rows) {
+        try {
+            ImportResult result = patientService.importPatients(rows);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePatient(@PathVariable Long id, @Valid @RequestBody Patient patientDetails) {
         try {
@@ -138,6 +191,7 @@ public class PatientController {
     }
     
     @GetMapping("/stats/total")
+    @CollectionETag(ResourceVersions.PATIENTS)
     public ResponseEntity<Long> getTotalPatients() {
         try {
             long totalPatients = patientService.getTotalPatients();
@@ -148,6 +202,7 @@ public class PatientController {
     }
     
     @GetMapping("/stats/gender/{gender}")
+    @CollectionETag(ResourceVersions.PATIENTS)
     public ResponseEntity<Long> getPatientCountByGender(@PathVariable String gender) {
         try {
             long count = patientService.getPatientCountByGender(gender);
@@ -0,0 +1,31 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.model.Appointment.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Selects appointments by any combination of status, doctor, department and a
+ * half-open {@code [from, to)} range on the appointment time. Null fields match everything.
+ */
+public record AppointmentFilter(AppointmentStatus status,
+                                String doctorName,
+                                String department,
+                                @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+                                @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return status == null && doctorName == null && department == null && from == null && to == null;
+    }
+
+    public boolean matches(AppointmentSnapshot appointment) {
+        return (status == null || status == appointment.status())
+                && (doctorName == null || doctorName.equals(appointment.doctorName()))
+                && (department == null || department.equals(appointment.department()))
+                && (from == null || !appointment.appointmentDateTime().isBefore(from))
+                && (to == null || appointment.appointmentDateTime().isBefore(to));
+    }
+}
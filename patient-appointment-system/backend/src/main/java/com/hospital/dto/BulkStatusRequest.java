@@ -0,0 +1,10 @@
+package com.hospital.dto;
+
+import com.hospital.model.Appointment.AppointmentStatus;
+import java.util.List;
+
+/**
+ * Moves either the listed appointments or those matching {@code filter} to {@code status}.
+ */
+public record BulkStatusRequest(AppointmentStatus status, List<Long> ids, AppointmentFilter filter) {
+}
@@ -0,0 +1,12 @@
+package com.hospital.dto;
+
+import java.util.List;
+
+/**
+ * {@code hasMore} is set when a filter matched more appointments than one request
+ * may change; sending the same request again continues with the rest.
+ * {@code rejected} lists appointments that would have been moved back to SCHEDULED or
+ * CONFIRMED into a slot their doctor no longer has free; they keep their status.
+ */
+public record BulkStatusResult(int updated, boolean hasMore, List<Long> rejected) {
+}
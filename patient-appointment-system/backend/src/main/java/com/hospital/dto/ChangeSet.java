@@ -0,0 +1,23 @@
+package com.hospital.dto;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import java.util.List;
+
+/**
+ * One response of the changes feed. Clients upsert the rows, drop the deleted ids and
+ * call again with {@code next} while {@code hasMore} is set. {@code resync} means the
+ * position is older than the retained deletions: clear the local copy and start over.
+ */
+public record ChangeSet(List<Appointment> appointments,
+                        List<Patient> patients,
+                        List<Long> deletedAppointments,
+                        List<Long> deletedPatients,
+                        String next,
+                        boolean hasMore,
+                        boolean resync) {
+
+    public static ChangeSet resyncRequired() {
+        return new ChangeSet(List.of(), List.of(), List.of(), List.of(), null, false, true);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hospital.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in the changes feed: one {@link PageCursor} each for appointments, patients
+ * and deletions, since the three are read independently. Encoded as the three tokens
+ * joined by dots, which URL-safe Base64 never produces.
+ */
+public record ChangesCursor(PageCursor appointments, PageCursor patients, PageCursor deletions) {
+
+    private static final String SEPARATOR = ".";
+
+    /**
+     * Everything written after {@code time}; an id above every real one makes the bound exclusive.
+     */
+    public static ChangesCursor after(LocalDateTime time) {
+        PageCursor position = new PageCursor(time, Long.MAX_VALUE);
+        return new ChangesCursor(position, position, position);
+    }
+
+    /**
+     * Everything written at or after {@code time}.
+     */
+    public static ChangesCursor from(LocalDateTime time) {
+        PageCursor position = new PageCursor(time, 0L);
+        return new ChangesCursor(position, position, position);
+    }
+
+    public String encode() {
+        return appointments.encode() + SEPARATOR + patients.encode() + SEPARATOR + deletions.encode();
+    }
+
+    public static ChangesCursor decode(String cursor) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new ChangesCursor(PageCursor.decode(parts[0]), PageCursor.decode(parts[1]), PageCursor.decode(parts[2]));
+    }
+}
@@ -0,0 +1,19 @@
+package com.hospital.dto;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.model.Patient;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the dashboard screen shows, returned in a single response.
+ */
+public record DashboardSummary(long totalPatients,
+                               long totalAppointments,
+                               long todayAppointments,
+                               long upcomingAppointments,
+                               Map<AppointmentStatus, Long> appointmentsByStatus,
+                               List<Appointment> recentAppointments,
+                               List<Patient> recentPatients) {
+}
@@ -0,0 +1,15 @@
+package com.hospital.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Free slot start times for one doctor. Days without a free slot are left out.
+ */
+public record DoctorAvailability(String doctorName, List<Day> days) {
+
+    public record Day(LocalDate date, @JsonFormat(pattern = "HH:mm") List<LocalTime> freeSlots) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.hospital.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows listed in {@code errors} were skipped; all other
+ * rows were inserted. {@code index} is the row's position in the request body.
+ */
+public record ImportResult(int received, int imported, List<RowError> errors) {
+
+    public record RowError(int index, String message) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.hospital.event;
+
+/**
+ * Published by the service layer whenever an appointment is written.
+ * {@code previous} is {@code null} for creations and {@code current} is
+ * {@code null} for deletions.
+ */
+public record AppointmentChangedEvent(AppointmentSnapshot previous, AppointmentSnapshot current) {
+
+    public static AppointmentChangedEvent created(AppointmentSnapshot current) {
+        return new AppointmentChangedEvent(null, current);
+    }
+
+    public static AppointmentChangedEvent updated(AppointmentSnapshot previous, AppointmentSnapshot current) {
+        return new AppointmentChangedEvent(previous, current);
+    }
+
+    public static AppointmentChangedEvent deleted(AppointmentSnapshot previous) {
+        return new AppointmentChangedEvent(previous, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.event;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Appointment.AppointmentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the scheduling-relevant fields of an {@link Appointment},
+ * safe to hand to listeners after the persistence context is gone.
+ */
+public record AppointmentSnapshot(Long id,
+                                  Long patientId,
+                                  String doctorName,
+                                  String department,
+                                  LocalDateTime appointmentDateTime,
+                                  AppointmentStatus status) {
+
+    public static AppointmentSnapshot of(Appointment appointment) {
+        return new AppointmentSnapshot(
+                appointment.getId(),
+                appointment.getPatient() != null ? appointment.getPatient().getId() : null,
+                appointment.getDoctorName(),
+                appointment.getDepartment(),
+                appointment.getAppointmentDateTime(),
+                appointment.getStatus());
+    }
+
+    public AppointmentSnapshot withStatus(AppointmentStatus newStatus) {
+        return new AppointmentSnapshot(id, patientId, doctorName, department, appointmentDateTime, newStatus);
+    }
+
+    /**
+     * Whether the appointment still occupies the doctor's time.
+     */
+    public boolean isActive() {
+        return status == AppointmentStatus.SCHEDULED || status == AppointmentStatus.CONFIRMED;
+    }
+}
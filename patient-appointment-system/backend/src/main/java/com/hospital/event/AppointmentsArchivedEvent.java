@@ -0,0 +1,11 @@
+package com.hospital.event;
+
+import java.util.List;
+
+/**
+ * Published when a batch of closed appointments has been moved to the archive. The
+ * appointments still exist, so this is not a deletion, but they have left the tables
+ * that lists, searches and the changes feed read.
+ */
+public record AppointmentsArchivedEvent(List<AppointmentSnapshot> archived) {
+}
@@ -0,0 +1,21 @@
+package com.hospital.event;
+
+/**
+ * Published by the service layer whenever a patient is written.
+ * {@code previous} is {@code null} for creations and {@code current} is
+ * {@code null} for deletions.
+ */
+public record PatientChangedEvent(PatientSnapshot previous, PatientSnapshot current) {
+
+    public static PatientChangedEvent created(PatientSnapshot current) {
+        return new PatientChangedEvent(null, current);
+    }
+
+    public static PatientChangedEvent updated(PatientSnapshot previous, PatientSnapshot current) {
+        return new PatientChangedEvent(previous, current);
+    }
+
+    public static PatientChangedEvent deleted(PatientSnapshot previous) {
+        return new PatientChangedEvent(previous, null);
+    }
+}
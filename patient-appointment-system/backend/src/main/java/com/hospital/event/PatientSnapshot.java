@@ -0,0 +1,29 @@
+package com.hospital.event;
+
+import com.hospital.model.Patient;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the identifying fields of a {@link Patient}.
+ */
+public record PatientSnapshot(Long id,
+                              String firstName,
+                              String lastName,
+                              String email,
+                              String phone,
+                              LocalDateTime createdAt) {
+
+    public static PatientSnapshot of(Patient patient) {
+        return new PatientSnapshot(
+                patient.getId(),
+                patient.getFirstName(),
+                patient.getLastName(),
+                patient.getEmail(),
+                patient.getPhone(),
+                patient.getCreatedAt());
+    }
+
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
@@ -7,11 +7,19 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_datetime_id", columnList = "appointment_datetime, id"),
+    @Index(name = "idx_appointments_doctor_datetime", columnList = "doctor_name, appointment_datetime"),
+    @Index(name = "idx_appointments_status_datetime", columnList = "status, appointment_datetime"),
+    @Index(name = "idx_appointments_patient_datetime", columnList = "patient_id, appointment_datetime"),
+    @Index(name = "idx_appointments_updated_id", columnList = "updated_at, id")
+})
 public class Appointment {
     
+    // Pooled sequence so inserts can be batched; one round trip reserves 50 ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -96,6 +104,12 @@ public class Appointment {
     }
     
     // Lifecycle callbacks
+    // Stamped at insert rather than taken from the request body, so the changes feed sees new rows
+    @PrePersist
+    protected void onCreate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
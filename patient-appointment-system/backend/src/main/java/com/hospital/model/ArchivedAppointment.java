@@ -0,0 +1,110 @@
+package com.hospital.model;
+
+import com.hospital.model.Appointment.AppointmentStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+/**
+ * A closed appointment moved out of {@code appointments} once it is past the archive
+ * horizon. Rows keep their id and are never changed again; reads that cover history
+ * turn them back into {@link Appointment}s with {@link #toAppointment()}.
+ */
+@Entity
+@Immutable
+@Table(name = "appointments_archive", indexes = {
+    @Index(name = "idx_appointments_archive_patient_datetime", columnList = "patient_id, appointment_datetime")
+})
+public class ArchivedAppointment {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(name = "doctor_name", nullable = false)
+    private String doctorName;
+
+    @Column(name = "department", nullable = false)
+    private String department;
+
+    @Column(name = "appointment_datetime", nullable = false)
+    private LocalDateTime appointmentDateTime;
+
+    @Column(name = "appointment_type", nullable = false)
+    private String appointmentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AppointmentStatus status;
+
+    @Column(name = "symptoms", length = 1000)
+    private String symptoms;
+
+    @Column(name = "notes", length = 1000)
+    private String notes;
+
+    @Column(name = "prescription", length = 2000)
+    private String prescription;
+
+    @Column(name = "diagnosis", length = 1000)
+    private String diagnosis;
+
+    @Column(name = "fee")
+    private Double fee;
+
+    @Column(name = "room_number")
+    private String roomNumber;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedAppointment() {
+    }
+
+    /**
+     * Detached copy in the shape of a live appointment, for responses and exports.
+     */
+    public Appointment toAppointment() {
+        Appointment appointment = new Appointment(patient, doctorName, department, appointmentDateTime, appointmentType);
+        appointment.setId(id);
+        appointment.setStatus(status);
+        appointment.setSymptoms(symptoms);
+        appointment.setNotes(notes);
+        appointment.setPrescription(prescription);
+        appointment.setDiagnosis(diagnosis);
+        appointment.setFee(fee);
+        appointment.setRoomNumber(roomNumber);
+        appointment.setCreatedAt(createdAt);
+        appointment.setUpdatedAt(updatedAt);
+        return appointment;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getAppointmentDateTime() {
+        return appointmentDateTime;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -3,16 +3,38 @@ package com.hospital.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hospital.config.SecondLevelCacheConfig;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+    @Index(name = "idx_patients_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_patients_updated_id", columnList = "updated_at, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Patient.EMAIL_UNIQUE_KEY, columnNames = "email"),
+    @UniqueConstraint(name = Patient.PHONE_UNIQUE_KEY, columnNames = "phone")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PATIENTS_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.PATIENT_EMAILS_REGION)
 public class Patient {
     
+    // Named so a violation can be told apart in the exception
+    public static final String EMAIL_UNIQUE_KEY = "uk_patients_email";
+    public static final String PHONE_UNIQUE_KEY = "uk_patients_phone";
+    
+    // Pooled sequence so inserts can be batched; one round trip reserves 50 ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_seq")
+    @SequenceGenerator(name = "patients_seq", sequenceName = "patients_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "First name is required")
@@ -27,7 +49,8 @@ public class Patient {
     
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
-    @Column(name = "email", nullable = false, unique = true)
+    @NaturalId(mutable = true)
+    @Column(name = "email", nullable = false)
     private String email;
     
     @NotBlank(message = "Phone number is required")
@@ -71,6 +94,8 @@ public class Patient {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
     
+    // Never serialized: history is served by GET /appointments/patient/{id}
+    @JsonIgnore
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Appointment> appointments;
     
@@ -92,6 +117,12 @@ public class Patient {
     }
     
     // Lifecycle callbacks
+    // Stamped at insert rather than taken from the request body, so the changes feed sees new rows
+    @PrePersist
+    protected void onCreate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,30 @@
+package com.hospital.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Single row stamped on the primary at a fixed interval; how old it is when read back
+ * from a replica tells how far that replica lags behind.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at", nullable = false)
+    private LocalDateTime beatAt;
+
+    protected ReplicaHeartbeat() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public LocalDateTime getBeatAt() {
+        return beatAt;
+    }
+}
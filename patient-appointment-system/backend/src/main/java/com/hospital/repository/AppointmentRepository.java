@@ -1,36 +1,94 @@
 package com.hospital.repository;
 
+import com.hospital.event.AppointmentSnapshot;
 import com.hospital.model.Appointment;
 import com.hospital.model.Appointment.AppointmentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
     
+    // Pages fetch the patient with a left join: an inner join lets H2 start from patients
+    // and sort every appointment instead of reading the page off the index
+    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.patient ORDER BY a.appointmentDateTime, a.id")
+    List<Appointment> findFirstPage(Pageable pageable);
+    
+    // Leading >= gives the optimizer a seek start on (appointment_datetime, id)
+    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.patient WHERE a.appointmentDateTime >= :dateTime AND " +
+           "(a.appointmentDateTime > :dateTime OR a.id > :id) ORDER BY a.appointmentDateTime, a.id")
+    List<Appointment> findPageAfter(@Param("dateTime") LocalDateTime dateTime,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+    
+    // Changes feed: rows written after the position and up to until, in (updated_at, id) order
+    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.patient WHERE a.updatedAt >= :updatedAt AND " +
+           "(a.updatedAt > :updatedAt OR a.id > :id) AND a.updatedAt <= :until ORDER BY a.updatedAt, a.id")
+    List<Appointment> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                       @Param("id") Long id,
+                                       @Param("until") LocalDateTime until,
+                                       Pageable pageable);
+    
+    // Forward-only cursor for exports; rows are fetched from the database in chunks
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient ORDER BY a.id")
+    Stream<Appointment> streamAll();
+    
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByPatientId(Long patientId);
     
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByDoctorName(String doctorName);
     
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByDepartment(String department);
     
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByStatus(AppointmentStatus status);
     
+    @EntityGraph(attributePaths = "patient")
     List<Appointment> findByAppointmentDateTimeBetween(LocalDateTime start, LocalDateTime end);
     
+    @EntityGraph(attributePaths = "patient")
+    List<Appointment> findByAppointmentDateTimeGreaterThanEqualAndAppointmentDateTimeLessThan(
+            LocalDateTime start, LocalDateTime end);
+    
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = :status")
     List<Appointment> findByPatientIdAndStatus(@Param("patientId") Long patientId, 
                                              @Param("status") AppointmentStatus status);
     
+    // Half-open range on the raw column so (doctor_name, appointment_datetime) can be used
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.doctorName = :doctorName AND " +
-           "DATE(a.appointmentDateTime) = DATE(:date)")
-    List<Appointment> findByDoctorAndDate(@Param("doctorName") String doctorName, 
-                                        @Param("date") LocalDateTime date);
+           "a.appointmentDateTime >= :start AND a.appointmentDateTime < :end")
+    List<Appointment> findByDoctorBetween(@Param("doctorName") String doctorName,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
     
+    default List<Appointment> findByDoctorAndDate(String doctorName, LocalDateTime date) {
+        LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
+        return findByDoctorBetween(doctorName, startOfDay, startOfDay.plusDays(1));
+    }
+    
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime >= :start AND " +
            "a.appointmentDateTime <= :end AND a.status IN :statuses")
     List<Appointment> findUpcomingAppointments(@Param("start") LocalDateTime start,
@@ -41,9 +99,25 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     long countByStatus(@Param("status") AppointmentStatus status);
     
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctorName = :doctorName AND " +
-           "DATE(a.appointmentDateTime) = DATE(:date)")
-    long countByDoctorAndDate(@Param("doctorName") String doctorName, 
-                            @Param("date") LocalDateTime date);
+           "a.appointmentDateTime >= :start AND a.appointmentDateTime < :end")
+    long countByDoctorBetween(@Param("doctorName") String doctorName,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+    
+    default long countByDoctorAndDate(String doctorName, LocalDateTime date) {
+        LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
+        return countByDoctorBetween(doctorName, startOfDay, startOfDay.plusDays(1));
+    }
+    
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT CAST(a.appointmentDateTime AS LocalDate), COUNT(a) FROM Appointment a " +
+           "WHERE a.appointmentDateTime >= :from GROUP BY CAST(a.appointmentDateTime AS LocalDate)")
+    List<Object[]> countGroupedByDayFrom(@Param("from") LocalDateTime from);
+    
+    @EntityGraph(attributePaths = "patient")
+    List<Appointment> findTop5ByOrderByCreatedAtDesc();
     
     @Query("SELECT DISTINCT a.doctorName FROM Appointment a ORDER BY a.doctorName")
     List<String> findAllDoctorNames();
@@ -51,6 +125,65 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT DISTINCT a.department FROM Appointment a ORDER BY a.department")
     List<String> findAllDepartments();
     
+    @Query("SELECT DISTINCT a.doctorName FROM Appointment a WHERE a.department = :department ORDER BY a.doctorName")
+    List<String> findDoctorNamesByDepartment(@Param("department") String department);
+    
+    @Query("SELECT new com.hospital.event.AppointmentSnapshot(a.id, a.patient.id, a.doctorName, " +
+           "a.department, a.appointmentDateTime, a.status) FROM Appointment a " +
+           "WHERE a.appointmentDateTime >= :from AND a.status IN :statuses")
+    List<AppointmentSnapshot> findSnapshotsFrom(@Param("from") LocalDateTime from,
+                                                @Param("statuses") List<AppointmentStatus> statuses);
+    
+    @Query("SELECT new com.hospital.event.AppointmentSnapshot(a.id, a.patient.id, a.doctorName, " +
+           "a.department, a.appointmentDateTime, a.status) FROM Appointment a " +
+           "WHERE a.appointmentDateTime < :before AND a.status IN :statuses " +
+           "ORDER BY a.appointmentDateTime, a.id")
+    List<AppointmentSnapshot> findSnapshotsBefore(@Param("before") LocalDateTime before,
+                                                  @Param("statuses") List<AppointmentStatus> statuses,
+                                                  Pageable pageable);
+    
+    @Query("SELECT new com.hospital.event.AppointmentSnapshot(a.id, a.patient.id, a.doctorName, " +
+           "a.department, a.appointmentDateTime, a.status) FROM Appointment a " +
+           "WHERE a.id IN :ids")
+    List<AppointmentSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Locking read: returns the latest committed state and holds the rows until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.hospital.event.AppointmentSnapshot(a.id, a.patient.id, a.doctorName, " +
+           "a.department, a.appointmentDateTime, a.status) FROM Appointment a " +
+           "WHERE a.id IN :ids")
+    List<AppointmentSnapshot> lockSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.hospital.event.AppointmentSnapshot(a.id, a.patient.id, a.doctorName, " +
+           "a.department, a.appointmentDateTime, a.status) FROM Appointment a " +
+           "WHERE a.id > :afterId " +
+           "AND (:status IS NULL OR a.status = :status) " +
+           "AND (:doctorName IS NULL OR a.doctorName = :doctorName) " +
+           "AND (:department IS NULL OR a.department = :department) " +
+           "AND (:from IS NULL OR a.appointmentDateTime >= :from) " +
+           "AND (:to IS NULL OR a.appointmentDateTime < :to) " +
+           "AND a.status <> :excludedStatus " +
+           "ORDER BY a.id")
+    List<AppointmentSnapshot> findSnapshotsMatching(@Param("afterId") Long afterId,
+                                                    @Param("status") AppointmentStatus status,
+                                                    @Param("doctorName") String doctorName,
+                                                    @Param("department") String department,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to,
+                                                    @Param("excludedStatus") AppointmentStatus excludedStatus,
+                                                    Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = :updatedAt WHERE a.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") AppointmentStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = "patient")
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime < :now AND " +
            "a.status IN ('SCHEDULED', 'CONFIRMED')")
     List<Appointment> findOverdueAppointments(@Param("now") LocalDateTime now);
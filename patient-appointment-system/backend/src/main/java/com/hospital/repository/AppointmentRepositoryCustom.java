@@ -0,0 +1,16 @@
+package com.hospital.repository;
+
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.PageCursor;
+import java.util.Map;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Keyset page of appointments selecting only the requested columns.
+     *
+     * @param fields comma-separated JSON field names, e.g. {@code id,doctorName,patient.firstName}
+     * @param after  position to continue from, or {@code null} for the first page
+     */
+    CursorPage<Map<String, Object>> findFieldsPage(String fields, PageCursor after, int limit);
+}
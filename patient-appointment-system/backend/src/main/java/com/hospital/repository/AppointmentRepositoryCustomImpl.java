@@ -0,0 +1,71 @@
+package com.hospital.repository;
+
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.PageCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    private static final Map<String, String> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", "a.id");
+        FIELDS.put("doctorName", "a.doctorName");
+        FIELDS.put("department", "a.department");
+        FIELDS.put("appointmentDateTime", "a.appointmentDateTime");
+        FIELDS.put("appointmentType", "a.appointmentType");
+        FIELDS.put("status", "a.status");
+        FIELDS.put("symptoms", "a.symptoms");
+        FIELDS.put("notes", "a.notes");
+        FIELDS.put("prescription", "a.prescription");
+        FIELDS.put("diagnosis", "a.diagnosis");
+        FIELDS.put("fee", "a.fee");
+        FIELDS.put("roomNumber", "a.roomNumber");
+        FIELDS.put("createdAt", "a.createdAt");
+        FIELDS.put("updatedAt", "a.updatedAt");
+        FIELDS.put("patient.id", "a.patient.id");
+        FIELDS.put("patient.firstName", "p.firstName");
+        FIELDS.put("patient.lastName", "p.lastName");
+        FIELDS.put("patient.email", "p.email");
+        FIELDS.put("patient.phone", "p.phone");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorPage<Map<String, Object>> findFieldsPage(String fields, PageCursor after, int limit) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELDS);
+
+        // The keyset columns always trail the requested ones so the next cursor can be built
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(selection.selectClause())
+                .append(", a.appointmentDateTime, a.id FROM Appointment a");
+        if (selection.uses("p.")) {
+            jpql.append(" JOIN a.patient p");
+        }
+        if (after != null) {
+            jpql.append(" WHERE a.appointmentDateTime >= :dateTime AND (a.appointmentDateTime > :dateTime OR a.id > :id)");
+        }
+        jpql.append(" ORDER BY a.appointmentDateTime, a.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (after != null) {
+            query.setParameter("dateTime", after.timestamp());
+            query.setParameter("id", after.id());
+        }
+        List<Object[]> rows = query.setMaxResults(limit + 1).getResultList();
+
+        int keyColumn = selection.size();
+        CursorPage<Object[]> page = CursorPage.of(rows, limit,
+                last -> new PageCursor((LocalDateTime) last[keyColumn], (Long) last[keyColumn + 1]).encode());
+        return new CursorPage<>(page.items().stream().map(selection::toJson).toList(),
+                                page.nextCursor(), page.hasMore());
+    }
+}
@@ -0,0 +1,36 @@
+package com.hospital.repository;
+
+import com.hospital.model.ArchivedAppointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long>, ArchivedAppointmentRepositoryCustom {
+    
+    @EntityGraph(attributePaths = "patient")
+    @Query("SELECT a FROM ArchivedAppointment a WHERE a.patient.id = :patientId ORDER BY a.appointmentDateTime, a.id")
+    List<ArchivedAppointment> findByPatientId(@Param("patientId") Long patientId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.patient ORDER BY a.id")
+    Stream<ArchivedAppointment> streamAll();
+    
+    @Query("SELECT a.status, COUNT(a) FROM ArchivedAppointment a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Modifying
+    @Query("DELETE FROM ArchivedAppointment a WHERE a.patient.id = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+}
@@ -0,0 +1,13 @@
+package com.hospital.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface ArchivedAppointmentRepositoryCustom {
+
+    /**
+     * Copies the given appointments into the archive as they are, ids included, in one
+     * statement, and returns the number of rows copied.
+     */
+    int copyFromAppointments(Collection<Long> ids, LocalDateTime archivedAt);
+}
@@ -0,0 +1,34 @@
+package com.hospital.repository;
+
+import com.hospital.model.ArchivedAppointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+class ArchivedAppointmentRepositoryCustomImpl implements ArchivedAppointmentRepositoryCustom {
+
+    private static final String COPY_FROM_APPOINTMENTS =
+            "INSERT INTO appointments_archive (id, patient_id, doctor_name, department, " +
+            "appointment_datetime, appointment_type, status, symptoms, notes, prescription, diagnosis, " +
+            "fee, room_number, created_at, updated_at, archived_at) " +
+            "SELECT id, patient_id, doctor_name, department, appointment_datetime, appointment_type, " +
+            "status, symptoms, notes, prescription, diagnosis, fee, room_number, created_at, updated_at, " +
+            ":archivedAt FROM appointments WHERE id IN :ids";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int copyFromAppointments(Collection<Long> ids, LocalDateTime archivedAt) {
+        // Without query spaces Hibernate cannot tell what a native write touches and
+        // clears every second-level cache region; this one only adds archive rows
+        return entityManager.createNativeQuery(COPY_FROM_APPOINTMENTS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ArchivedAppointment.class)
+                .setParameter("ids", ids)
+                .setParameter("archivedAt", archivedAt)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,89 @@
+package com.hospital.repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses a {@code fields} request parameter against a whitelist of JSON names and
+ * maps selected tuple rows back to JSON-shaped maps. Dotted names such as
+ * {@code patient.firstName} become nested objects, matching the entity JSON.
+ */
+class FieldSelection {
+
+    // Same pattern as the @JsonFormat on the entities' date-time fields
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<String> names;
+
+    private final List<String> paths;
+
+    private FieldSelection(List<String> names, List<String> paths) {
+        this.names = names;
+        this.paths = paths;
+    }
+
+    /**
+     * @param fields  comma-separated JSON field names
+     * @param allowed JSON field name to JPQL path
+     */
+    static FieldSelection parse(String fields, Map<String, String> allowed) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        List<String> names = new ArrayList<>(requested);
+        return new FieldSelection(names, names.stream().map(allowed::get).toList());
+    }
+
+    boolean uses(String pathPrefix) {
+        return paths.stream().anyMatch(path -> path.startsWith(pathPrefix));
+    }
+
+    String selectClause() {
+        return String.join(", ", paths);
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    Map<String, Object> toJson(Object[] row) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            put(json, names.get(i), format(row[i]));
+        }
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> json, String name, Object value) {
+        int dot = name.indexOf('.');
+        if (dot < 0) {
+            json.put(name, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) json.computeIfAbsent(
+                name.substring(0, dot), key -> new LinkedHashMap<String, Object>());
+        put(nested, name.substring(dot + 1), value);
+    }
+
+    private static Object format(Object value) {
+        return value instanceof LocalDateTime dateTime ? DATE_TIME_FORMAT.format(dateTime) : value;
+    }
+}
@@ -1,19 +1,55 @@
 package com.hospital.repository;
 
+import com.hospital.event.PatientSnapshot;
 import com.hospital.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientRepositoryCustom {
+    
+    @Query("SELECT p FROM Patient p ORDER BY p.createdAt, p.id")
+    List<Patient> findFirstPage(Pageable pageable);
+    
+    // Leading >= gives the optimizer a seek start on (created_at, id)
+    @Query("SELECT p FROM Patient p WHERE p.createdAt >= :createdAt AND " +
+           "(p.createdAt > :createdAt OR p.id > :id) ORDER BY p.createdAt, p.id")
+    List<Patient> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+    
+    // Changes feed: rows written after the position and up to until, in (updated_at, id) order
+    @Query("SELECT p FROM Patient p WHERE p.updatedAt >= :updatedAt AND " +
+           "(p.updatedAt > :updatedAt OR p.id > :id) AND p.updatedAt <= :until ORDER BY p.updatedAt, p.id")
+    List<Patient> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                   @Param("id") Long id,
+                                   @Param("until") LocalDateTime until,
+                                   Pageable pageable);
+    
+    // Forward-only cursor for exports; rows are fetched from the database in chunks
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Patient p ORDER BY p.id")
+    Stream<Patient> streamAll();
     
     Optional<Patient> findByEmail(String email);
     
+    // Results are cached until the next write to patients; the rows come from the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Patient> findByPhone(String phone);
     
     List<Patient> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
@@ -36,7 +72,22 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     @Query("SELECT p FROM Patient p WHERE p.createdAt >= :date")
     List<Patient> findPatientsRegisteredSince(@Param("date") LocalDate date);
     
+    @Query("SELECT new com.hospital.event.PatientSnapshot(p.id, p.firstName, p.lastName, " +
+           "p.email, p.phone, p.createdAt) FROM Patient p")
+    List<PatientSnapshot> findAllSnapshots();
+    
+    List<Patient> findTop5ByOrderByCreatedAtDesc();
+    
     boolean existsByEmail(String email);
     
+    @Query("SELECT p.email FROM Patient p WHERE p.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT p.phone FROM Patient p WHERE p.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+    
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     boolean existsByPhone(String phone);
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.hospital.repository;
+
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.PageCursor;
+import com.hospital.model.Patient;
+import java.util.Map;
+import java.util.Optional;
+
+public interface PatientRepositoryCustom {
+
+    /**
+     * Keyset page of patients selecting only the requested columns.
+     *
+     * @param fields comma-separated JSON field names, e.g. {@code id,firstName,lastName}
+     * @param after  position to continue from, or {@code null} for the first page
+     */
+    CursorPage<Map<String, Object>> findFieldsPage(String fields, PageCursor after, int limit);
+
+    /**
+     * Looks the patient up by email through the natural-id cache, so a repeat lookup
+     * resolves the id and the entity without a query.
+     */
+    Optional<Patient> loadByEmail(String email);
+}
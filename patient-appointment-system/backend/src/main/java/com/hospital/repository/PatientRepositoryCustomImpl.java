@@ -0,0 +1,72 @@
+package com.hospital.repository;
+
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.PageCursor;
+import com.hospital.model.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class PatientRepositoryCustomImpl implements PatientRepositoryCustom {
+
+    private static final Map<String, String> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", "p.id");
+        FIELDS.put("firstName", "p.firstName");
+        FIELDS.put("lastName", "p.lastName");
+        FIELDS.put("email", "p.email");
+        FIELDS.put("phone", "p.phone");
+        FIELDS.put("dateOfBirth", "p.dateOfBirth");
+        FIELDS.put("gender", "p.gender");
+        FIELDS.put("address", "p.address");
+        FIELDS.put("emergencyContact", "p.emergencyContact");
+        FIELDS.put("emergencyPhone", "p.emergencyPhone");
+        FIELDS.put("medicalHistory", "p.medicalHistory");
+        FIELDS.put("allergies", "p.allergies");
+        FIELDS.put("bloodGroup", "p.bloodGroup");
+        FIELDS.put("createdAt", "p.createdAt");
+        FIELDS.put("updatedAt", "p.updatedAt");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorPage<Map<String, Object>> findFieldsPage(String fields, PageCursor after, int limit) {
+        FieldSelection selection = FieldSelection.parse(fields, FIELDS);
+
+        // The keyset columns always trail the requested ones so the next cursor can be built
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(selection.selectClause())
+                .append(", p.createdAt, p.id FROM Patient p");
+        if (after != null) {
+            jpql.append(" WHERE p.createdAt >= :createdAt AND (p.createdAt > :createdAt OR p.id > :id)");
+        }
+        jpql.append(" ORDER BY p.createdAt, p.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (after != null) {
+            query.setParameter("createdAt", after.timestamp());
+            query.setParameter("id", after.id());
+        }
+        List<Object[]> rows = query.setMaxResults(limit + 1).getResultList();
+
+        int keyColumn = selection.size();
+        CursorPage<Object[]> page = CursorPage.of(rows, limit,
+                last -> new PageCursor((LocalDateTime) last[keyColumn], (Long) last[keyColumn + 1]).encode());
+        return new CursorPage<>(page.items().stream().map(selection::toJson).toList(),
+                                page.nextCursor(), page.hasMore());
+    }
+
+    @Override
+    public Optional<Patient> loadByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Patient.class).loadOptional(email);
+    }
+}
@@ -0,0 +1,27 @@
+package com.hospital.repository;
+
+import com.hospital.model.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // Leading >= gives the optimizer a seek start on (deleted_at, id)
+    @Query("SELECT t FROM Tombstone t WHERE t.deletedAt >= :deletedAt AND " +
+           "(t.deletedAt > :deletedAt OR t.id > :id) AND t.deletedAt <= :until ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findPageAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                  @Param("id") Long id,
+                                  @Param("until") LocalDateTime until,
+                                  Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
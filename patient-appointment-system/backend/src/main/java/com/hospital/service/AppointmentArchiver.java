@@ -0,0 +1,45 @@
+package com.hospital.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves closed appointments older than the horizon from {@code appointments} into
+ * {@code appointments_archive}, one batch per transaction, so the table every list and
+ * status query reads holds recent and open appointments only however long history grows.
+ */
+@Component
+public class AppointmentArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Value("${appointments.archive.horizon:P365D}")
+    private Duration horizon;
+
+    @Value("${appointments.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${appointments.archive.cron:0 0 2 * * *}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(horizon);
+        int total = 0;
+        AppointmentService.BatchResult batch;
+        do {
+            batch = appointmentService.archiveClosedBefore(cutoff, batchSize);
+            total += batch.changed();
+            // Rows reopened since the batch was read stay behind; only a short read means we are done
+        } while (batch.found() == batchSize);
+        if (total > 0) {
+            logger.info("Archived {} closed appointments from before {}", total, cutoff.toLocalDate());
+        }
+    }
+}
@@ -1,56 +1,179 @@
 package com.hospital.service;
 
+import com.hospital.config.CacheConfig;
+import com.hospital.config.PrimaryReads;
+import com.hospital.dto.AppointmentFilter;
+import com.hospital.dto.BulkStatusRequest;
+import com.hospital.dto.BulkStatusResult;
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.ImportResult;
+import com.hospital.dto.PageCursor;
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.event.AppointmentsArchivedEvent;
 import com.hospital.model.Appointment;
 import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.model.ArchivedAppointment;
 import com.hospital.model.Patient;
 import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.ArchivedAppointmentRepository;
 import com.hospital.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = ServiceMetrics.SERVICE_CALLS, histogram = true)
 public class AppointmentService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    public static final int STATUS_BATCH_SIZE = 500;
+    public static final int MAX_BULK_STATUS_ROWS = 10_000;
+    
+    private static final List<AppointmentStatus> ACTIVE_STATUSES = Arrays.asList(
+        AppointmentStatus.SCHEDULED,
+        AppointmentStatus.CONFIRMED
+    );
+    
+    // Final states; appointments in them are archived once past the horizon
+    private static final List<AppointmentStatus> CLOSED_STATUSES = Arrays.asList(
+        AppointmentStatus.COMPLETED,
+        AppointmentStatus.CANCELLED,
+        AppointmentStatus.NO_SHOW
+    );
+    
+    /**
+     * Outcome of one batch of a background job: how many rows the batch query found and
+     * how many of them were still eligible once locked. Fewer found than asked for means
+     * nothing is left; fewer changed than found does not.
+     */
+    public record BatchResult(int found, int changed) {
+    }
+    
     @Autowired
     private AppointmentRepository appointmentRepository;
     
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    
     @Autowired
     private PatientRepository patientRepository;
     
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+    
+    @Autowired
+    private DoctorBookingLocks bookingLocks;
+    
+    @Autowired
+    private DashboardStatistics statistics;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ServiceMetrics metrics;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<Appointment> getAppointmentsPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to find out whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Appointment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findFirstPage(window);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = appointmentRepository.findPageAfter(after.timestamp(), after.id(), window);
+        }
+        return CursorPage.of(rows, pageSize,
+                last -> new PageCursor(last.getAppointmentDateTime(), last.getId()).encode());
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getAppointmentsPage(String cursor, int limit, String fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+        try {
+            return appointmentRepository.findFieldsPage(fields, after, pageSize);
+        } catch (InvalidDataAccessApiUsageException e) {
+            // Unknown field names are reported by the repository as IllegalArgumentException
+            throw new IllegalArgumentException(e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Appointment> getAppointmentById(Long id) {
-        return appointmentRepository.findById(id);
+        Optional<Appointment> appointment = appointmentRepository.findById(id);
+        return appointment.isPresent()
+                ? appointment
+                : archivedAppointmentRepository.findById(id).map(ArchivedAppointment::toAppointment);
     }
     
+    // A patient's full history: archived appointments first, then the live ones
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByPatientId(Long patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+        List<Appointment> history = new ArrayList<>();
+        archivedAppointmentRepository.findByPatientId(patientId)
+                .forEach(archived -> history.add(archived.toAppointment()));
+        List<Appointment> live = new ArrayList<>(appointmentRepository.findByPatientId(patientId));
+        live.sort(Comparator.comparing(Appointment::getAppointmentDateTime).thenComparing(Appointment::getId));
+        history.addAll(live);
+        return history;
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctor(String doctorName) {
         return appointmentRepository.findByDoctorName(doctorName);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDepartment(String department) {
         return appointmentRepository.findByDepartment(department);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByStatus(AppointmentStatus status) {
         return appointmentRepository.findByStatus(status);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsBetween(LocalDateTime start, LocalDateTime end) {
         return appointmentRepository.findByAppointmentDateTimeBetween(start, end);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getUpcomingAppointments() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime futureLimit = now.plusMonths(3);
@@ -61,18 +184,32 @@ public class AppointmentService {
         return appointmentRepository.findUpcomingAppointments(now, futureLimit, activeStatuses);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getTodaysAppointments() {
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-        return appointmentRepository.findByAppointmentDateTimeBetween(startOfDay, endOfDay);
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        return appointmentRepository.findByAppointmentDateTimeGreaterThanEqualAndAppointmentDateTimeLessThan(
+                startOfDay, startOfDay.plusDays(1));
     }
     
+    // Cached lists are read from the primary: a lagging replica would refill them with
+    // what an eviction just removed. Loads are synchronized, so an eviction after commit
+    // waits for a load that may have read the table before it and drops what it cached
+    @Cacheable(cacheNames = CacheConfig.DOCTORS_CACHE, sync = true)
+    @Transactional(readOnly = true)
     public List<String> getAllDoctors() {
-        return appointmentRepository.findAllDoctorNames();
+        return PrimaryReads.call(appointmentRepository::findAllDoctorNames);
     }
     
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENTS_CACHE, sync = true)
+    @Transactional(readOnly = true)
     public List<String> getAllDepartments() {
-        return appointmentRepository.findAllDepartments();
+        return PrimaryReads.call(appointmentRepository::findAllDepartments);
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_DOCTORS_CACHE, sync = true)
+    @Transactional(readOnly = true)
+    public List<String> getDoctorsInDepartment(String department) {
+        return PrimaryReads.call(() -> appointmentRepository.findDoctorNamesByDepartment(department));
     }
     
     public Appointment createAppointment(Appointment appointment) {
@@ -86,13 +223,66 @@ public class AppointmentService {
         appointment.setPatient(patient);
         appointment.setStatus(AppointmentStatus.SCHEDULED);
         
+        // Hold the doctor's lock until commit so no other booking can claim the slot in between
+        bookingLocks.lockUntilCompletion(appointment.getDoctorName());
+        
         // Check for doctor availability (basic check)
-        if (isDoctorBusy(appointment.getDoctorName(), appointment.getAppointmentDateTime())) {
-            throw new RuntimeException("Doctor " + appointment.getDoctorName() + 
-                                     " is not available at the requested time");
+        requireDoctorAvailable(appointment.getDoctorName(), appointment.getAppointmentDateTime(), null);
+        
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(savedAppointment)));
+        return savedAppointment;
+    }
+    
+    public ImportResult importAppointments(List<Appointment> appointments) {
+        BulkImports.checkSize(appointments);
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            String error = importError(appointments.get(i));
+            if (error != null) {
+                errors.add(new ImportResult.RowError(i, error));
+            } else {
+                validRows.add(i);
+            }
+        }
+        
+        List<Appointment> candidates = validRows.stream().map(appointments::get).toList();
+        Set<Long> existingPatients = BulkImports.findExisting(
+                candidates.stream().map(a -> a.getPatient().getId()).toList(), patientRepository::findExistingIds);
+        bookingLocks.lockUntilCompletion(candidates.stream()
+                .map(Appointment::getDoctorName)
+                .distinct()
+                .toArray(String[]::new));
+        
+        Map<String, NavigableSet<LocalDateTime>> bookedInRequest = new HashMap<>();
+        List<Appointment> accepted = new ArrayList<>();
+        for (int i : validRows) {
+            Appointment appointment = appointments.get(i);
+            String doctorName = appointment.getDoctorName();
+            if (!existingPatients.contains(appointment.getPatient().getId())) {
+                errors.add(new ImportResult.RowError(i, "Patient not found with id: " + appointment.getPatient().getId()));
+            } else if (!claimSlot(bookedInRequest, doctorName, appointment.getAppointmentDateTime(), null)) {
+                errors.add(new ImportResult.RowError(i, "Doctor " + doctorName + " is not available at the requested time"));
+            } else {
+                appointment.setId(null);
+                appointment.setStatus(AppointmentStatus.SCHEDULED);
+                accepted.add(appointment);
+            }
+        }
+        
+        for (int from = 0; from < accepted.size(); from += BulkImports.FLUSH_SIZE) {
+            List<Appointment> chunk = accepted.subList(from, Math.min(from + BulkImports.FLUSH_SIZE, accepted.size()));
+            // References avoid loading each patient
+            chunk.forEach(a -> a.setPatient(patientRepository.getReferenceById(a.getPatient().getId())));
+            appointmentRepository.saveAll(chunk).forEach(saved ->
+                    eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(saved))));
+            appointmentRepository.flush();
+            entityManager.clear();
         }
         
-        return appointmentRepository.save(appointment);
+        errors.sort(Comparator.comparingInt(ImportResult.RowError::index));
+        return new ImportResult(appointments.size(), accepted.size(), errors);
     }
     
     public Appointment updateAppointment(Long id, Appointment appointmentDetails) {
@@ -106,15 +296,18 @@ public class AppointmentService {
                 .orElseThrow(() -> new RuntimeException("Patient not found with id: " + 
                                                       appointmentDetails.getPatient().getId()));
         
-        // Check for doctor availability if datetime or doctor changed
-        if (!appointment.getDoctorName().equals(appointmentDetails.getDoctorName()) ||
-            !appointment.getAppointmentDateTime().equals(appointmentDetails.getAppointmentDateTime())) {
-            if (isDoctorBusy(appointmentDetails.getDoctorName(), appointmentDetails.getAppointmentDateTime())) {
-                throw new RuntimeException("Doctor " + appointmentDetails.getDoctorName() + 
-                                         " is not available at the requested time");
-            }
+        bookingLocks.lockUntilCompletion(appointment.getDoctorName(), appointmentDetails.getDoctorName());
+        
+        // Check for doctor availability whenever the result occupies a slot, including a
+        // cancelled or completed appointment being reopened without a new time
+        AppointmentStatus resultingStatus = appointmentDetails.getStatus() != null
+                ? appointmentDetails.getStatus() : appointment.getStatus();
+        if (ACTIVE_STATUSES.contains(resultingStatus)) {
+            requireDoctorAvailable(appointmentDetails.getDoctorName(), appointmentDetails.getAppointmentDateTime(), id);
         }
         
+        AppointmentSnapshot previous = AppointmentSnapshot.of(appointment);
+        
         // Update appointment details
         appointment.setPatient(patient);
         appointment.setDoctorName(appointmentDetails.getDoctorName());
@@ -132,22 +325,113 @@ public class AppointmentService {
             appointment.setStatus(appointmentDetails.getStatus());
         }
         
-        return appointmentRepository.save(appointment);
+        return saveChanged(previous, appointment);
     }
     
     public Appointment updateAppointmentStatus(Long id, AppointmentStatus status) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
         
+        bookingLocks.lockUntilCompletion(appointment.getDoctorName());
+        
+        if (ACTIVE_STATUSES.contains(status)) {
+            requireDoctorAvailable(appointment.getDoctorName(), appointment.getAppointmentDateTime(), id);
+        }
+        
+        AppointmentSnapshot previous = AppointmentSnapshot.of(appointment);
         appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        return saveChanged(previous, appointment);
     }
     
-    public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new RuntimeException("Appointment not found with id: " + id);
+    public BulkStatusResult updateAppointmentStatuses(BulkStatusRequest request) {
+        AppointmentStatus status = request.status();
+        if (status == null) {
+            throw new IllegalArgumentException("Status is required");
         }
-        appointmentRepository.deleteById(id);
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byFilter = request.filter() != null && !request.filter().isEmpty();
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Either ids or a non-empty filter is required, but not both");
+        }
+        
+        int updated = 0;
+        List<Long> rejected = new ArrayList<>();
+        Map<String, NavigableSet<LocalDateTime>> reopened = new HashMap<>();
+        if (byIds) {
+            List<Long> ids = request.ids().stream().distinct().toList();
+            if (ids.size() > MAX_BULK_STATUS_ROWS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_ROWS + " appointments can be updated per request");
+            }
+            for (int from = 0; from < ids.size(); from += STATUS_BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + STATUS_BATCH_SIZE, ids.size()));
+                updated += transitionStatus(appointmentRepository.findSnapshotsByIdIn(chunk), status,
+                        current -> current.status() != status, reopened, rejected);
+            }
+            return new BulkStatusResult(updated, false, rejected);
+        }
+        
+        // Appointments already in the target status are skipped by the query, so repeating
+        // a request that hit the row limit picks up where it stopped
+        AppointmentFilter filter = request.filter();
+        long afterId = 0;
+        for (int examined = 0; examined < MAX_BULK_STATUS_ROWS; ) {
+            int chunkSize = Math.min(STATUS_BATCH_SIZE, MAX_BULK_STATUS_ROWS - examined);
+            List<AppointmentSnapshot> candidates = findMatching(filter, afterId, status, chunkSize);
+            updated += transitionStatus(candidates, status,
+                    current -> current.status() != status && filter.matches(current), reopened, rejected);
+            if (candidates.size() < chunkSize) {
+                return new BulkStatusResult(updated, false, rejected);
+            }
+            examined += candidates.size();
+            afterId = candidates.get(candidates.size() - 1).id();
+        }
+        return new BulkStatusResult(updated, !findMatching(filter, afterId, status, 1).isEmpty(), rejected);
+    }
+    
+    /**
+     * Moves up to {@code batchSize} appointments still SCHEDULED or CONFIRMED with a start
+     * before {@code cutoff} to NO_SHOW.
+     */
+    public BatchResult markNoShowsBefore(LocalDateTime cutoff, int batchSize) {
+        List<AppointmentSnapshot> candidates = appointmentRepository.findSnapshotsBefore(
+                cutoff, ACTIVE_STATUSES, PageRequest.of(0, batchSize));
+        int marked = transitionStatus(candidates, AppointmentStatus.NO_SHOW,
+                current -> current.isActive() && current.appointmentDateTime().isBefore(cutoff),
+                new HashMap<>(), new ArrayList<>());
+        return new BatchResult(candidates.size(), marked);
+    }
+    
+    /**
+     * Moves up to {@code batchSize} COMPLETED, CANCELLED or NO_SHOW appointments that started
+     * before {@code cutoff} into the archive.
+     */
+    public BatchResult archiveClosedBefore(LocalDateTime cutoff, int batchSize) {
+        List<AppointmentSnapshot> candidates = appointmentRepository.findSnapshotsBefore(
+                cutoff, CLOSED_STATUSES, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+        // Re-read under row locks: a row reopened since the first read stays where it is
+        List<AppointmentSnapshot> closed = appointmentRepository.lockSnapshotsByIdIn(
+                candidates.stream().map(AppointmentSnapshot::id).toList()).stream()
+                .filter(current -> CLOSED_STATUSES.contains(current.status())
+                        && current.appointmentDateTime().isBefore(cutoff))
+                .toList();
+        if (closed.isEmpty()) {
+            return new BatchResult(candidates.size(), 0);
+        }
+        List<Long> ids = closed.stream().map(AppointmentSnapshot::id).toList();
+        archivedAppointmentRepository.copyFromAppointments(ids, LocalDateTime.now());
+        appointmentRepository.deleteByIdIn(ids);
+        eventPublisher.publishEvent(new AppointmentsArchivedEvent(closed));
+        return new BatchResult(candidates.size(), closed.size());
+    }
+    
+    public void deleteAppointment(Long id) {
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
+        appointmentRepository.delete(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.deleted(AppointmentSnapshot.of(appointment)));
     }
     
     public Appointment cancelAppointment(Long id) {
@@ -158,56 +442,163 @@ public class AppointmentService {
             throw new RuntimeException("Appointment cannot be cancelled");
         }
         
+        AppointmentSnapshot previous = AppointmentSnapshot.of(appointment);
         appointment.setStatus(AppointmentStatus.CANCELLED);
-        return appointmentRepository.save(appointment);
+        return saveChanged(previous, appointment);
     }
     
+    @Transactional(readOnly = true)
     public long getTotalAppointments() {
-        return appointmentRepository.count();
+        return statistics.getTotalAppointments();
     }
     
+    @Transactional(readOnly = true)
     public long getAppointmentCountByStatus(AppointmentStatus status) {
-        return appointmentRepository.countByStatus(status);
+        return statistics.getAppointmentCount(status);
     }
     
+    @Transactional(readOnly = true)
     public List<Appointment> getOverdueAppointments() {
         return appointmentRepository.findOverdueAppointments(LocalDateTime.now());
     }
     
-    private boolean isDoctorBusy(String doctorName, LocalDateTime appointmentDateTime) {
-        // Check if doctor has another appointment within 1 hour window
-        LocalDateTime start = appointmentDateTime.minusMinutes(30);
-        LocalDateTime end = appointmentDateTime.plusMinutes(30);
+    private Appointment saveChanged(AppointmentSnapshot previous, Appointment appointment) {
+        Appointment savedAppointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.updated(previous, AppointmentSnapshot.of(savedAppointment)));
+        return savedAppointment;
+    }
+    
+    private List<AppointmentSnapshot> findMatching(AppointmentFilter filter, long afterId,
+                                                   AppointmentStatus excludedStatus, int limit) {
+        return appointmentRepository.findSnapshotsMatching(afterId, filter.status(), filter.doctorName(),
+                filter.department(), filter.from(), filter.to(), excludedStatus, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Sets {@code status} on the candidates with one UPDATE and publishes an event per row.
+     * Candidates are re-read under row locks after the doctor locks are held, and only
+     * rows that still pass {@code stillEligible} are changed. When {@code status} occupies
+     * a slot, rows that did not already hold theirs must find it free, both in the schedule
+     * index and in {@code reopened} (slots claimed earlier in this transaction); the ids
+     * of those that do not are added to {@code rejected} and left unchanged.
+     */
+    private int transitionStatus(List<AppointmentSnapshot> candidates, AppointmentStatus status,
+                                 Predicate<AppointmentSnapshot> stillEligible,
+                                 Map<String, NavigableSet<LocalDateTime>> reopened, List<Long> rejected) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Set<String> lockedDoctors = candidates.stream()
+                .map(AppointmentSnapshot::doctorName)
+                .collect(Collectors.toSet());
+        bookingLocks.lockUntilCompletion(lockedDoctors.toArray(String[]::new));
         
-        List<Appointment> conflictingAppointments = appointmentRepository
-                .findByAppointmentDateTimeBetween(start, end)
-                .stream()
-                .filter(apt -> apt.getDoctorName().equals(doctorName))
-                .filter(apt -> apt.getStatus() == AppointmentStatus.SCHEDULED || 
-                              apt.getStatus() == AppointmentStatus.CONFIRMED)
+        List<AppointmentSnapshot> current = appointmentRepository.lockSnapshotsByIdIn(
+                candidates.stream().map(AppointmentSnapshot::id).toList()).stream()
+                .filter(stillEligible)
                 .toList();
+        if (current.isEmpty()) {
+            return 0;
+        }
+        String[] movedDoctors = current.stream()
+                .map(AppointmentSnapshot::doctorName)
+                .filter(doctorName -> !lockedDoctors.contains(doctorName))
+                .distinct()
+                .toArray(String[]::new);
+        if (movedDoctors.length > 0) {
+            bookingLocks.lockUntilCompletion(movedDoctors);
+        }
         
-        return !conflictingAppointments.isEmpty();
+        if (ACTIVE_STATUSES.contains(status)) {
+            List<AppointmentSnapshot> admitted = new ArrayList<>();
+            for (AppointmentSnapshot row : current) {
+                if (row.isActive() || claimSlot(reopened, row.doctorName(), row.appointmentDateTime(), row.id())) {
+                    admitted.add(row);
+                } else {
+                    rejected.add(row.id());
+                }
+            }
+            if (admitted.isEmpty()) {
+                return 0;
+            }
+            current = admitted;
+        }
+        
+        appointmentRepository.updateStatus(current.stream().map(AppointmentSnapshot::id).toList(),
+                status, LocalDateTime.now());
+        current.forEach(previous ->
+                eventPublisher.publishEvent(AppointmentChangedEvent.updated(previous, previous.withStatus(status))));
+        return current.size();
+    }
+    
+    /**
+     * Records the slot in {@code claimed} if neither the schedule index nor an earlier
+     * claim in {@code claimed} conflicts with it. Slots taken earlier in the same
+     * transaction are not in the index until it commits.
+     */
+    private boolean claimSlot(Map<String, NavigableSet<LocalDateTime>> claimed, String doctorName,
+                              LocalDateTime appointmentDateTime, Long excludeId) {
+        NavigableSet<LocalDateTime> booked = claimed.computeIfAbsent(doctorName, d -> new TreeSet<>());
+        if (isDoctorBusy(doctorName, appointmentDateTime, excludeId)
+                || !booked.subSet(appointmentDateTime.minus(DoctorScheduleIndex.CONFLICT_WINDOW), true,
+                                  appointmentDateTime.plus(DoctorScheduleIndex.CONFLICT_WINDOW), true).isEmpty()) {
+            metrics.bookingConflict();
+            return false;
+        }
+        booked.add(appointmentDateTime);
+        return true;
     }
     
-    private void validateAppointment(Appointment appointment) {
+    // isDoctorBusy and validateAppointment are package-private for the JMH benchmarks
+    boolean isDoctorBusy(String doctorName, LocalDateTime appointmentDateTime, Long excludeId) {
+        // Check if doctor has another active appointment within the conflict window
+        return metrics.timeAvailabilityCheck(() -> scheduleIndex.hasConflict(doctorName, appointmentDateTime, excludeId));
+    }
+    
+    private void requireDoctorAvailable(String doctorName, LocalDateTime appointmentDateTime, Long excludeId) {
+        if (isDoctorBusy(doctorName, appointmentDateTime, excludeId)) {
+            metrics.bookingConflict();
+            throw new RuntimeException("Doctor " + doctorName + " is not available at the requested time");
+        }
+    }
+    
+    private String importError(Appointment appointment) {
+        String violations = appointment == null ? "Row is empty" : BulkImports.violations(validator, appointment);
+        if (violations != null) {
+            metrics.validationRejected(ServiceMetrics.APPOINTMENT, "invalid");
+            return violations;
+        }
+        try {
+            validateAppointment(appointment);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+    
+    void validateAppointment(Appointment appointment) {
         if (appointment.getPatient() == null || appointment.getPatient().getId() == null) {
-            throw new RuntimeException("Patient is required");
+            throw rejected("Patient is required");
         }
         if (appointment.getDoctorName() == null || appointment.getDoctorName().trim().isEmpty()) {
-            throw new RuntimeException("Doctor name is required");
+            throw rejected("Doctor name is required");
         }
         if (appointment.getDepartment() == null || appointment.getDepartment().trim().isEmpty()) {
-            throw new RuntimeException("Department is required");
+            throw rejected("Department is required");
         }
         if (appointment.getAppointmentDateTime() == null) {
-            throw new RuntimeException("Appointment date and time is required");
+            throw rejected("Appointment date and time is required");
         }
         if (appointment.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Appointment cannot be scheduled in the past");
+            throw rejected("Appointment cannot be scheduled in the past");
         }
         if (appointment.getAppointmentType() == null || appointment.getAppointmentType().trim().isEmpty()) {
-            throw new RuntimeException("Appointment type is required");
+            throw rejected("Appointment type is required");
         }
     }
-} 
\ No newline at end of file
+    
+    private RuntimeException rejected(String message) {
+        metrics.validationRejected(ServiceMetrics.APPOINTMENT, "invalid");
+        return new RuntimeException(message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hospital.service;
+
+import com.hospital.dto.DoctorAvailability;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Free appointment slots, read from the schedule index's per-day bitmaps of blocked
+ * slot starts. No query runs except the cached lookup of a department's doctors, so a
+ * week for a whole department costs a few hundred bitmap scans.
+ */
+@Service
+@Timed(value = ServiceMetrics.SERVICE_CALLS, histogram = true)
+public class AvailabilityService {
+
+    public static final int MAX_DAYS = 31;
+
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Value("${appointments.availability.opening-time:08:00}")
+    private LocalTime openingTime;
+
+    @Value("${appointments.availability.closing-time:18:00}")
+    private LocalTime closingTime;
+
+    @Value("${appointments.availability.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private Set<DayOfWeek> workingDays;
+
+    private int firstSlot;
+
+    private int endSlot;
+
+    @PostConstruct
+    void init() {
+        long slotSeconds = scheduleIndex.getSlotLength().toSeconds();
+        // Slots that start at or after opening and end by closing time
+        firstSlot = (int) -Math.floorDiv(-openingTime.toSecondOfDay(), slotSeconds);
+        endSlot = (int) Math.floorDiv(closingTime.toSecondOfDay(), slotSeconds);
+    }
+
+    /**
+     * Free slots from {@code from} to {@code to} inclusive for one doctor, or for every
+     * doctor who has had appointments in {@code department}.
+     */
+    public List<DoctorAvailability> getAvailability(String doctorName, String department, LocalDate from, LocalDate to) {
+        if (isBlank(doctorName) && isBlank(department)) {
+            throw new IllegalArgumentException("Either doctor or department is required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_DAYS + " days");
+        }
+        List<String> doctors = isBlank(doctorName)
+                ? appointmentService.getDoctorsInDepartment(department)
+                : List.of(doctorName);
+
+        LocalDateTime now = LocalDateTime.now();
+        Duration slotLength = scheduleIndex.getSlotLength();
+        List<DoctorAvailability> availability = new ArrayList<>(doctors.size());
+        for (String doctor : doctors) {
+            List<DoctorAvailability.Day> days = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (!workingDays.contains(date.getDayOfWeek())) {
+                    continue;
+                }
+                BitSet blocked = scheduleIndex.blockedSlots(doctor, date);
+                List<LocalTime> free = new ArrayList<>();
+                for (int slot = blocked.nextClearBit(firstSlot); slot < endSlot; slot = blocked.nextClearBit(slot + 1)) {
+                    LocalTime start = LocalTime.MIDNIGHT.plus(slotLength.multipliedBy(slot));
+                    if (date.atTime(start).isAfter(now)) {
+                        free.add(start);
+                    }
+                }
+                if (!free.isEmpty()) {
+                    days.add(new DoctorAvailability.Day(date, free));
+                }
+            }
+            availability.add(new DoctorAvailability(doctor, days));
+        }
+        return availability;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
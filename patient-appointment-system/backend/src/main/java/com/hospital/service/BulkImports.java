@@ -0,0 +1,61 @@
+package com.hospital.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers shared by the bulk import methods of the services.
+ */
+final class BulkImports {
+
+    static final int MAX_ROWS = 10_000;
+
+    // Rows written and detached per flush, a multiple of hibernate.jdbc.batch_size
+    static final int FLUSH_SIZE = 500;
+
+    // Keeps IN lists well below driver and optimizer limits
+    private static final int IN_LIST_SIZE = 1_000;
+
+    private BulkImports() {
+    }
+
+    static void checkSize(List<?> rows) {
+        if (rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_ROWS + " rows can be imported per request");
+        }
+    }
+
+    /**
+     * Runs the entity's bean validation constraints, which are otherwise only checked
+     * by {@code @Valid} on single-record endpoints, and returns their messages or null.
+     */
+    static String violations(Validator validator, Object row) {
+        Set<? extends ConstraintViolation<?>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Looks up which of {@code keys} already exist with one IN query per chunk.
+     */
+    static <K, V> Set<V> findExisting(Collection<K> keys, Function<Collection<K>, List<V>> query) {
+        Set<V> existing = new HashSet<>();
+        List<K> distinct = new ArrayList<>(new HashSet<>(keys));
+        for (int from = 0; from < distinct.size(); from += IN_LIST_SIZE) {
+            existing.addAll(query.apply(distinct.subList(from, Math.min(from + IN_LIST_SIZE, distinct.size()))));
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,205 @@
+package com.hospital.service;
+
+import com.hospital.dto.ChangeSet;
+import com.hospital.dto.ChangesCursor;
+import com.hospital.dto.PageCursor;
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentsArchivedEvent;
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import com.hospital.model.Tombstone;
+import com.hospital.model.Tombstone.EntityType;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.PatientRepository;
+import com.hospital.repository.TombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Delta sync for clients that keep a local copy. Appointments, patients and deletions
+ * are each read in (timestamp, id) order from their own position, so a client only
+ * downloads what was written since its last call.
+ */
+@Service
+@Transactional
+@Timed(value = ServiceMetrics.SERVICE_CALLS, histogram = true)
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 2000;
+
+    // Start of a full download; every row has been written after this
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    // updated_at is stamped before commit, so a row may become visible after later-stamped
+    // ones. Pages are read up to now - overlap, so positions never move past it, and the
+    // rows after it that the last page adds are read again next time
+    @Value("${changes.overlap:PT2M}")
+    private Duration overlap;
+
+    @Value("${changes.tombstone-retention:P90D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Changes after {@code since}, which is either the {@code next} token of an earlier
+     * call or a timestamp. Without it the whole data set is returned, page by page.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet getChanges(String since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(overlap);
+
+        ChangesCursor from;
+        if (since == null || since.isBlank()) {
+            // Deletions before the download starts concern rows the client never receives
+            from = new ChangesCursor(new PageCursor(BEGINNING, 0L), new PageCursor(BEGINNING, 0L),
+                                     new PageCursor(settled, 0L));
+        } else {
+            from = parseSince(since);
+            if (from.deletions().timestamp().isBefore(now.minus(tombstoneRetention))) {
+                return ChangeSet.resyncRequired();
+            }
+        }
+
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Appointment> appointments = appointmentRepository.findChangedAfter(
+                from.appointments().timestamp(), from.appointments().id(), settled, window);
+        List<Patient> patients = patientRepository.findChangedAfter(
+                from.patients().timestamp(), from.patients().id(), settled, window);
+        List<Tombstone> tombstones = tombstoneRepository.findPageAfter(
+                from.deletions().timestamp(), from.deletions().id(), settled, window);
+
+        boolean hasMore = appointments.size() > pageSize || patients.size() > pageSize || tombstones.size() > pageSize;
+        appointments = trim(appointments, pageSize);
+        patients = trim(patients, pageSize);
+        tombstones = trim(tombstones, pageSize);
+
+        if (!hasMore) {
+            // Caught up to settled: add what was written since, as far as the page has room
+            appointments = withNewest(appointments, pageSize, room -> appointmentRepository.findChangedAfter(
+                    settled, Long.MAX_VALUE, now, PageRequest.of(0, room)));
+            patients = withNewest(patients, pageSize, room -> patientRepository.findChangedAfter(
+                    settled, Long.MAX_VALUE, now, PageRequest.of(0, room)));
+            tombstones = withNewest(tombstones, pageSize, room -> tombstoneRepository.findPageAfter(
+                    settled, Long.MAX_VALUE, now, PageRequest.of(0, room)));
+        }
+
+        ChangesCursor next;
+        if (hasMore) {
+            next = new ChangesCursor(
+                    appointments.isEmpty() ? from.appointments() : positionOf(appointments.get(appointments.size() - 1)),
+                    patients.isEmpty() ? from.patients() : positionOf(patients.get(patients.size() - 1)),
+                    tombstones.isEmpty() ? from.deletions() : positionOf(tombstones.get(tombstones.size() - 1)));
+        } else {
+            // Everything up to settled has been read; what was added after it is read again
+            next = ChangesCursor.from(settled);
+        }
+
+        List<Long> deletedAppointments = new ArrayList<>();
+        List<Long> deletedPatients = new ArrayList<>();
+        for (Tombstone tombstone : tombstones) {
+            (tombstone.getEntityType() == EntityType.APPOINTMENT ? deletedAppointments : deletedPatients)
+                    .add(tombstone.getEntityId());
+        }
+        return new ChangeSet(appointments, patients, deletedAppointments, deletedPatients,
+                             next.encode(), hasMore, false);
+    }
+
+    // Written inside the deleting transaction, so a deletion and its tombstone commit together
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.current() == null && event.previous() != null) {
+            tombstoneRepository.save(new Tombstone(EntityType.APPOINTMENT, event.previous().id(), LocalDateTime.now()));
+        }
+    }
+
+    // Local copies hold the live table only; archived appointments leave them like deletions
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        tombstoneRepository.saveAll(event.archived().stream()
+                .map(appointment -> new Tombstone(EntityType.APPOINTMENT, appointment.id(), now))
+                .toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.current() == null && event.previous() != null) {
+            tombstoneRepository.save(new Tombstone(EntityType.PATIENT, event.previous().id(), LocalDateTime.now()));
+        }
+    }
+
+    @Scheduled(cron = "${changes.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            logger.info("Purged {} tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private static ChangesCursor parseSince(String since) {
+        // Base64 tokens never contain ':', timestamps always do
+        if (since.indexOf(':') < 0) {
+            return ChangesCursor.decode(since);
+        }
+        try {
+            return ChangesCursor.after(LocalDateTime.parse(since.trim().replace(' ', 'T')));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid since: " + since);
+        }
+    }
+
+    private static <T> List<T> trim(List<T> rows, int pageSize) {
+        return rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    }
+
+    private static <T> List<T> withNewest(List<T> rows, int pageSize, IntFunction<List<T>> newest) {
+        int room = pageSize - rows.size();
+        if (room <= 0) {
+            return rows;
+        }
+        List<T> combined = new ArrayList<>(rows);
+        combined.addAll(newest.apply(room));
+        return combined;
+    }
+
+    private static PageCursor positionOf(Appointment appointment) {
+        return new PageCursor(appointment.getUpdatedAt(), appointment.getId());
+    }
+
+    private static PageCursor positionOf(Patient patient) {
+        return new PageCursor(patient.getUpdatedAt(), patient.getId());
+    }
+
+    private static PageCursor positionOf(Tombstone tombstone) {
+        return new PageCursor(tombstone.getDeletedAt(), tombstone.getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.hospital.service;
+
+import com.hospital.dto.DashboardSummary;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Service
+@Transactional(readOnly = true)
+public class DashboardService {
+    
+    @Autowired
+    private DashboardStatistics statistics;
+    
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+    
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    
+    @Autowired
+    private PatientRepository patientRepository;
+    
+    public DashboardSummary getSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        return new DashboardSummary(
+                statistics.getTotalPatients(),
+                statistics.getTotalAppointments(),
+                statistics.getAppointmentCount(LocalDate.now()),
+                // Same window as AppointmentService.getUpcomingAppointments
+                scheduleIndex.countActiveBetween(now, now.plusMonths(3)),
+                statistics.getAppointmentCountsByStatus(),
+                appointmentRepository.findTop5ByOrderByCreatedAtDesc(),
+                patientRepository.findTop5ByOrderByCreatedAtDesc());
+    }
+}
@@ -0,0 +1,129 @@
+package com.hospital.service;
+
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.ArchivedAppointmentRepository;
+import com.hospital.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals for the dashboard: patients, appointments per status and
+ * appointments per calendar day (today onwards). Seeded with one round of
+ * aggregate queries at startup and then maintained from change events, so
+ * reading them never touches the database.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class DashboardStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatistics.class);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final AtomicLong totalPatients = new AtomicLong();
+
+    private final Map<AppointmentStatus, AtomicLong> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+
+    private final Map<LocalDate, AtomicLong> appointmentsByDay = new ConcurrentHashMap<>();
+
+    public DashboardStatistics() {
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            appointmentsByStatus.put(status, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    void warmUp() {
+        totalPatients.set(patientRepository.count());
+        for (Object[] row : appointmentRepository.countGroupedByStatus()) {
+            appointmentsByStatus.get((AppointmentStatus) row[0]).set((Long) row[1]);
+        }
+        // Archiving moves appointments without changing them, so the totals include the archive
+        for (Object[] row : archivedAppointmentRepository.countGroupedByStatus()) {
+            appointmentsByStatus.get((AppointmentStatus) row[0]).addAndGet((Long) row[1]);
+        }
+        List<Object[]> days = appointmentRepository.countGroupedByDayFrom(LocalDate.now().atStartOfDay());
+        for (Object[] row : days) {
+            appointmentsByDay.put((LocalDate) row[0], new AtomicLong((Long) row[1]));
+        }
+        logger.info("Dashboard statistics warmed: {} patients, {} appointments",
+                    totalPatients.get(), getTotalAppointments());
+    }
+
+    public long getTotalPatients() {
+        return totalPatients.get();
+    }
+
+    public long getTotalAppointments() {
+        return appointmentsByStatus.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long getAppointmentCount(AppointmentStatus status) {
+        return appointmentsByStatus.get(status).get();
+    }
+
+    public Map<AppointmentStatus, Long> getAppointmentCountsByStatus() {
+        Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+        appointmentsByStatus.forEach((status, count) -> counts.put(status, count.get()));
+        return counts;
+    }
+
+    public long getAppointmentCount(LocalDate day) {
+        AtomicLong count = appointmentsByDay.get(day);
+        return count != null ? count.get() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.previous() != null) {
+            adjust(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            adjust(event.current(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.previous() == null) {
+            totalPatients.incrementAndGet();
+        } else if (event.current() == null) {
+            totalPatients.decrementAndGet();
+        }
+    }
+
+    @Scheduled(cron = "${dashboard.statistics.prune-cron:0 5 0 * * *}")
+    public void pruneElapsedDays() {
+        LocalDate today = LocalDate.now();
+        appointmentsByDay.keySet().removeIf(day -> day.isBefore(today));
+    }
+
+    private void adjust(AppointmentSnapshot appointment, long delta) {
+        appointmentsByStatus.get(appointment.status()).addAndGet(delta);
+        appointmentsByDay.computeIfAbsent(appointment.appointmentDateTime().toLocalDate(), day -> new AtomicLong())
+                .addAndGet(delta);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hospital.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One lock per doctor, held from the availability check until the surrounding
+ * transaction has committed and {@link DoctorScheduleIndex} has seen the change.
+ * Bookings for the same doctor are serialized; bookings for different doctors
+ * never wait on each other. Locks only cover this JVM.
+ */
+@Component
+public class DoctorBookingLocks {
+
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Value("${appointments.booking.lock-timeout:PT5S}")
+    private Duration lockTimeout;
+
+    /**
+     * Locks the given doctors until the current transaction completes. Doctors are
+     * locked in name order so that two requests touching the same pair cannot deadlock.
+     */
+    public void lockUntilCompletion(String... doctorNames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Doctor locks require an active transaction");
+        }
+        TreeSet<String> ordered = new TreeSet<>();
+        for (String doctorName : doctorNames) {
+            ordered.add(Objects.requireNonNull(doctorName));
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>();
+        try {
+            for (String doctorName : ordered) {
+                ReentrantLock lock = locks.computeIfAbsent(doctorName, name -> new ReentrantLock());
+                if (!lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new RuntimeException("Doctor " + doctorName +
+                                               " is being booked by another request, please try again");
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new RuntimeException("Interrupted while waiting to book doctor", e);
+        } catch (RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // Release after the schedule index has applied the committed change
+                return LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                unlock(acquired);
+            }
+        });
+    }
+
+    private static void unlock(List<ReentrantLock> acquired) {
+        for (int i = acquired.size() - 1; i >= 0; i--) {
+            acquired.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.hospital.service;
+
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of active (SCHEDULED/CONFIRMED) appointments per doctor,
+ * ordered by start time, so conflict checks are a range lookup instead of a
+ * database query. Only appointments that can still collide with a new booking
+ * are kept: the index is warmed from the repository at startup, kept current
+ * from {@link AppointmentChangedEvent}s after commit, and pruned periodically.
+ * For availability searches it also keeps, per doctor and day, a bitmap of the slot
+ * starts a new booking would conflict with, rebuilt for the touched days on every change.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class DoctorScheduleIndex {
+
+    /**
+     * A doctor cannot take two appointments starting within this window of each other.
+     */
+    public static final Duration CONFLICT_WINDOW = Duration.ofMinutes(30);
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorScheduleIndex.class);
+
+    private static final BitSet EMPTY_SLOTS = new BitSet();
+
+    private static final List<AppointmentStatus> ACTIVE_STATUSES = Arrays.asList(
+        AppointmentStatus.SCHEDULED,
+        AppointmentStatus.CONFIRMED
+    );
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private final Map<String, NavigableSet<Entry>> entriesByDoctor = new ConcurrentHashMap<>();
+
+    private final Map<Long, Entry> entriesById = new ConcurrentHashMap<>();
+
+    // Replaced rather than modified, so readers never see a bitmap being rebuilt
+    private final Map<String, Map<LocalDate, BitSet>> blockedSlotsByDoctor = new ConcurrentHashMap<>();
+
+    @Value("${appointments.availability.slot-length:PT30M}")
+    private Duration slotLength;
+
+    private int slotsPerDay;
+
+    @PostConstruct
+    void warmUp() {
+        if (Duration.ofDays(1).toSeconds() % slotLength.toSeconds() != 0) {
+            throw new IllegalArgumentException("Slot length must divide a day: " + slotLength);
+        }
+        slotsPerDay = (int) (Duration.ofDays(1).toSeconds() / slotLength.toSeconds());
+        LocalDateTime from = LocalDateTime.now().minus(CONFLICT_WINDOW);
+        List<AppointmentSnapshot> active = appointmentRepository.findSnapshotsFrom(from, ACTIVE_STATUSES);
+        active.forEach(this::put);
+        logger.info("Doctor schedule index warmed with {} active appointments", active.size());
+    }
+
+    /**
+     * Returns true if the doctor has an active appointment starting within
+     * {@link #CONFLICT_WINDOW} of {@code appointmentDateTime}, ignoring {@code excludeId}.
+     */
+    public boolean hasConflict(String doctorName, LocalDateTime appointmentDateTime, Long excludeId) {
+        NavigableSet<Entry> entries = entriesByDoctor.get(doctorName);
+        if (entries == null) {
+            return false;
+        }
+        Entry from = new Entry(appointmentDateTime.minus(CONFLICT_WINDOW), Long.MIN_VALUE, doctorName);
+        Entry to = new Entry(appointmentDateTime.plus(CONFLICT_WINDOW), Long.MAX_VALUE, doctorName);
+        for (Entry entry : entries.subSet(from, true, to, true)) {
+            if (!entry.id().equals(excludeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of active appointments, across all doctors, starting in {@code [from, to]}.
+     */
+    public long countActiveBetween(LocalDateTime from, LocalDateTime to) {
+        long count = 0;
+        for (NavigableSet<Entry> entries : entriesByDoctor.values()) {
+            count += entries.subSet(new Entry(from, Long.MIN_VALUE, null), true,
+                                    new Entry(to, Long.MAX_VALUE, null), true).size();
+        }
+        return count;
+    }
+
+    /**
+     * Slot starts on {@code date}, counted in {@link #getSlotLength()} steps from midnight,
+     * at which a new booking for the doctor would conflict. The result must not be modified.
+     */
+    public BitSet blockedSlots(String doctorName, LocalDate date) {
+        Map<LocalDate, BitSet> days = blockedSlotsByDoctor.get(doctorName);
+        BitSet blocked = days == null ? null : days.get(date);
+        return blocked != null ? blocked : EMPTY_SLOTS;
+    }
+
+    public Duration getSlotLength() {
+        return slotLength;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    // Runs before DoctorBookingLocks releases the doctor, so the next booking sees this change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        apply(event);
+    }
+
+    synchronized void apply(AppointmentChangedEvent event) {
+        if (event.previous() != null) {
+            remove(event.previous().id());
+        }
+        if (event.current() != null && event.current().isActive()) {
+            put(event.current());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.schedule-index.prune-interval:PT1H}")
+    public synchronized void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(CONFLICT_WINDOW);
+        entriesById.values().removeIf(entry -> {
+            if (entry.start().isBefore(cutoff)) {
+                NavigableSet<Entry> entries = entriesByDoctor.get(entry.doctorName());
+                if (entries != null) {
+                    entries.remove(entry);
+                }
+                return true;
+            }
+            return false;
+        });
+        entriesByDoctor.values().removeIf(NavigableSet::isEmpty);
+        // Past slots are never offered, so earlier days can go whatever they still hold
+        LocalDate today = LocalDate.now();
+        blockedSlotsByDoctor.values().forEach(days -> days.keySet().removeIf(date -> date.isBefore(today)));
+        blockedSlotsByDoctor.values().removeIf(Map::isEmpty);
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    private synchronized void put(AppointmentSnapshot appointment) {
+        Entry entry = new Entry(appointment.appointmentDateTime(), appointment.id(), appointment.doctorName());
+        remove(appointment.id());
+        entriesById.put(entry.id(), entry);
+        entriesByDoctor.computeIfAbsent(entry.doctorName(), doctor -> new ConcurrentSkipListSet<>()).add(entry);
+        rebuildBlockedSlots(entry);
+    }
+
+    private void remove(Long id) {
+        Entry existing = entriesById.remove(id);
+        if (existing != null) {
+            NavigableSet<Entry> entries = entriesByDoctor.get(existing.doctorName());
+            if (entries != null) {
+                entries.remove(existing);
+            }
+            rebuildBlockedSlots(existing);
+        }
+    }
+
+    // An appointment blocks starts within the conflict window either side, which can reach into the next or previous day
+    private void rebuildBlockedSlots(Entry changed) {
+        LocalDate first = changed.start().minus(CONFLICT_WINDOW).toLocalDate();
+        LocalDate last = changed.start().plus(CONFLICT_WINDOW).toLocalDate();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            rebuildBlockedSlots(changed.doctorName(), date);
+        }
+    }
+
+    private void rebuildBlockedSlots(String doctorName, LocalDate date) {
+        LocalDateTime midnight = date.atStartOfDay();
+        long slotSeconds = slotLength.toSeconds();
+        long windowSeconds = CONFLICT_WINDOW.toSeconds();
+        BitSet blocked = new BitSet(slotsPerDay);
+        NavigableSet<Entry> entries = entriesByDoctor.get(doctorName);
+        if (entries != null) {
+            Entry from = new Entry(midnight.minus(CONFLICT_WINDOW), Long.MIN_VALUE, doctorName);
+            Entry to = new Entry(midnight.plusDays(1).plus(CONFLICT_WINDOW), Long.MAX_VALUE, doctorName);
+            for (Entry entry : entries.subSet(from, true, to, true)) {
+                long offset = Duration.between(midnight, entry.start()).toSeconds();
+                // Slots whose start lies within the window, inclusive on both ends like hasConflict
+                long firstSlot = -Math.floorDiv(-(offset - windowSeconds), slotSeconds);
+                long lastSlot = Math.floorDiv(offset + windowSeconds, slotSeconds);
+                firstSlot = Math.max(firstSlot, 0);
+                lastSlot = Math.min(lastSlot, slotsPerDay - 1);
+                if (firstSlot <= lastSlot) {
+                    blocked.set((int) firstSlot, (int) lastSlot + 1);
+                }
+            }
+        }
+        Map<LocalDate, BitSet> days = blockedSlotsByDoctor.computeIfAbsent(doctorName, doctor -> new ConcurrentHashMap<>());
+        if (blocked.isEmpty()) {
+            days.remove(date);
+        } else {
+            days.put(date, blocked);
+        }
+    }
+
+    private record Entry(LocalDateTime start, Long id, String doctorName) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : id.compareTo(other.id);
+        }
+    }
+}
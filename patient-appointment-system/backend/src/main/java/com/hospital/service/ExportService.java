@@ -0,0 +1,194 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hospital.dto.ExportFormat;
+import com.hospital.model.Appointment;
+import com.hospital.model.ArchivedAppointment;
+import com.hospital.model.Patient;
+import com.hospital.repository.AppointmentRepository;
+import com.hospital.repository.ArchivedAppointmentRepository;
+import com.hospital.repository.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables row by row from a database cursor. The persistence context
+ * is cleared every {@link #CLEAR_INTERVAL} rows so memory use does not grow with
+ * the size of the export, and the entity cache is bypassed so an export does not
+ * evict the patients in use. Appointment exports read the live table, then the archive.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+    
+    private static final int CLEAR_INTERVAL = 500;
+    
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private static final Map<String, Function<Appointment, Object>> APPOINTMENT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Patient, Object>> PATIENT_COLUMNS = new LinkedHashMap<>();
+    
+    static {
+        APPOINTMENT_COLUMNS.put("id", Appointment::getId);
+        APPOINTMENT_COLUMNS.put("patientId", a -> a.getPatient().getId());
+        APPOINTMENT_COLUMNS.put("patientFirstName", a -> a.getPatient().getFirstName());
+        APPOINTMENT_COLUMNS.put("patientLastName", a -> a.getPatient().getLastName());
+        APPOINTMENT_COLUMNS.put("doctorName", Appointment::getDoctorName);
+        APPOINTMENT_COLUMNS.put("department", Appointment::getDepartment);
+        APPOINTMENT_COLUMNS.put("appointmentDateTime", Appointment::getAppointmentDateTime);
+        APPOINTMENT_COLUMNS.put("appointmentType", Appointment::getAppointmentType);
+        APPOINTMENT_COLUMNS.put("status", Appointment::getStatus);
+        APPOINTMENT_COLUMNS.put("symptoms", Appointment::getSymptoms);
+        APPOINTMENT_COLUMNS.put("notes", Appointment::getNotes);
+        APPOINTMENT_COLUMNS.put("prescription", Appointment::getPrescription);
+        APPOINTMENT_COLUMNS.put("diagnosis", Appointment::getDiagnosis);
+        APPOINTMENT_COLUMNS.put("fee", Appointment::getFee);
+        APPOINTMENT_COLUMNS.put("roomNumber", Appointment::getRoomNumber);
+        APPOINTMENT_COLUMNS.put("createdAt", Appointment::getCreatedAt);
+        APPOINTMENT_COLUMNS.put("updatedAt", Appointment::getUpdatedAt);
+        
+        PATIENT_COLUMNS.put("id", Patient::getId);
+        PATIENT_COLUMNS.put("firstName", Patient::getFirstName);
+        PATIENT_COLUMNS.put("lastName", Patient::getLastName);
+        PATIENT_COLUMNS.put("email", Patient::getEmail);
+        PATIENT_COLUMNS.put("phone", Patient::getPhone);
+        PATIENT_COLUMNS.put("dateOfBirth", Patient::getDateOfBirth);
+        PATIENT_COLUMNS.put("gender", Patient::getGender);
+        PATIENT_COLUMNS.put("address", Patient::getAddress);
+        PATIENT_COLUMNS.put("emergencyContact", Patient::getEmergencyContact);
+        PATIENT_COLUMNS.put("emergencyPhone", Patient::getEmergencyPhone);
+        PATIENT_COLUMNS.put("medicalHistory", Patient::getMedicalHistory);
+        PATIENT_COLUMNS.put("allergies", Patient::getAllergies);
+        PATIENT_COLUMNS.put("bloodGroup", Patient::getBloodGroup);
+        PATIENT_COLUMNS.put("createdAt", Patient::getCreatedAt);
+        PATIENT_COLUMNS.put("updatedAt", Patient::getUpdatedAt);
+    }
+    
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    
+    @Autowired
+    private PatientRepository patientRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public void exportAppointments(ExportFormat format, OutputStream out) throws IOException {
+        // One cursor at a time: the archive is only opened once the live table is done
+        export(List.of(
+                appointmentRepository::streamAll,
+                () -> archivedAppointmentRepository.streamAll().map(ArchivedAppointment::toAppointment)
+        ), format, APPOINTMENT_COLUMNS, out);
+    }
+    
+    public void exportPatients(ExportFormat format, OutputStream out) throws IOException {
+        export(List.of(patientRepository::streamAll), format, PATIENT_COLUMNS, out);
+    }
+    
+    private <T> void export(List<Supplier<Stream<T>>> sources, ExportFormat format,
+                            Map<String, Function<T, Object>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter<T> rowWriter = format == ExportFormat.CSV
+                ? csvWriter(writer, columns)
+                : ndjsonWriter(writer);
+        
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            int count = 0;
+            for (Supplier<Stream<T>> source : sources) {
+                try (Stream<T> rows = source.get()) {
+                    Iterator<T> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(iterator.next());
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                            writer.flush();
+                        }
+                    }
+                }
+            }
+        } finally {
+            session.setCacheMode(previousCacheMode);
+        }
+        writer.flush();
+    }
+    
+    private <T> RowWriter<T> ndjsonWriter(Writer writer) throws IOException {
+        // Flushing per value would push every row to the client as its own chunk
+        ObjectWriter json = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return row -> {
+            json.writeValue(generator, row);
+            generator.writeRaw('\n');
+            generator.flush();
+        };
+    }
+    
+    private <T> RowWriter<T> csvWriter(Writer writer, Map<String, Function<T, Object>> columns) throws IOException {
+        writer.write(String.join(",", columns.keySet()));
+        writer.write("\r\n");
+        return row -> {
+            boolean first = true;
+            for (Function<T, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writeCsvValue(writer, column.apply(row));
+            }
+            writer.write("\r\n");
+        };
+    }
+    
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof LocalDateTime dateTime ? DATE_TIME_FORMAT.format(dateTime) : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+}
@@ -0,0 +1,239 @@
+package com.hospital.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
+import com.hospital.model.Appointment.AppointmentStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed appointment and patient changes to browsers over server-sent events.
+ * Changes are queued after commit and sent from one dispatcher thread every flush
+ * interval, so a slow client never holds up a write and a bulk update reaches each
+ * client as one message. Messages say what changed; clients fetch the rows through
+ * the changes feed.
+ */
+@Component
+public class LiveUpdates {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Change(String entity, String action, Long id, Long patientId, String doctorName,
+                         String department, AppointmentStatus status,
+                         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime appointmentDateTime) {
+    }
+
+    /**
+     * {@code truncated} replaces the items when more changed in one interval than is
+     * worth describing; clients should then refresh everything they show.
+     */
+    public record Message(List<Change> items, boolean truncated) {
+    }
+
+    // Before and after values, so moving an appointment notifies both the old and the new doctor
+    private record Pending(Change change, Set<String> doctors, Set<String> departments) {
+    }
+
+    private record Subscription(SseEmitter emitter, String department, String doctor) {
+
+        boolean matches(Pending pending) {
+            // Patients belong to no department; a rename shows up on every schedule
+            if (pending.doctors().isEmpty()) {
+                return true;
+            }
+            return (department == null || pending.departments().contains(department))
+                && (doctor == null || pending.doctors().contains(doctor));
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${live-updates.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${live-updates.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${live-updates.flush-interval:PT0.5S}")
+    private Duration flushInterval;
+
+    @Value("${live-updates.heartbeat-interval:PT20S}")
+    private Duration heartbeatInterval;
+
+    @Value("${live-updates.max-batch:500}")
+    private int maxBatch;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final BlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("live.subscribers", subscriptions, Set::size)
+                .description("Open server-sent event streams")
+                .register(meterRegistry);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+        subscriptions.clear();
+    }
+
+    /**
+     * Opens a stream limited to one department and/or doctor; {@code null} means all.
+     */
+    public SseEmitter subscribe(String department, String doctor) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live update subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(emitter, blankToNull(department), blankToNull(doctor));
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        try {
+            // Commits the response headers so the client sees the stream open right away
+            emitter.send(SseEmitter.event().reconnectTime(heartbeatInterval.toMillis()).comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        AppointmentSnapshot previous = event.previous();
+        AppointmentSnapshot current = event.current();
+        AppointmentSnapshot latest = current != null ? current : previous;
+        String action = previous == null ? CREATED : current == null ? DELETED : UPDATED;
+        Change change = new Change(ServiceMetrics.APPOINTMENT, action, latest.id(), latest.patientId(),
+                latest.doctorName(), latest.department(), latest.status(), latest.appointmentDateTime());
+        enqueue(new Pending(change,
+                valuesOf(previous == null ? null : previous.doctorName(), current == null ? null : current.doctorName()),
+                valuesOf(previous == null ? null : previous.department(), current == null ? null : current.department())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        PatientSnapshot latest = event.current() != null ? event.current() : event.previous();
+        String action = event.previous() == null ? CREATED : event.current() == null ? DELETED : UPDATED;
+        enqueue(new Pending(new Change(ServiceMetrics.PATIENT, action, latest.id(), latest.id(),
+                null, null, null, null), Set.of(), Set.of()));
+    }
+
+    private void enqueue(Pending change) {
+        // Past a full batch the items are dropped anyway; stop queueing until the next flush
+        if (overflowed.get() || pending.size() >= maxBatch) {
+            overflowed.set(true);
+            return;
+        }
+        pending.offer(change);
+    }
+
+    private void flush() {
+        List<Pending> batch = new ArrayList<>();
+        pending.drainTo(batch);
+        boolean truncated = overflowed.getAndSet(false);
+        if (batch.isEmpty() && !truncated) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            List<Change> items = new ArrayList<>();
+            if (!truncated) {
+                for (Pending change : batch) {
+                    if (subscription.matches(change)) {
+                        items.add(change.change());
+                    }
+                }
+                if (items.isEmpty()) {
+                    continue;
+                }
+            }
+            send(subscription, SseEmitter.event().name("changes")
+                    .data(new Message(items, truncated), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    private void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            send(subscription, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscriptions.remove(subscription);
+            subscription.emitter().completeWithError(e);
+        }
+    }
+
+    private static Set<String> valuesOf(String previous, String current) {
+        if (previous == null || previous.equals(current)) {
+            return Set.of(current);
+        }
+        return current == null ? Set.of(previous) : Set.of(previous, current);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
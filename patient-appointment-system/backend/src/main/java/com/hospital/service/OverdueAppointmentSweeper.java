@@ -0,0 +1,42 @@
+package com.hospital.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Marks appointments that are still SCHEDULED or CONFIRMED well after their start
+ * time as NO_SHOW, one batch per transaction so doctor locks are held only briefly.
+ */
+@Component
+public class OverdueAppointmentSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueAppointmentSweeper.class);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    // Leaves time to mark a late arrival IN_PROGRESS before it counts as a no-show
+    @Value("${appointments.overdue-sweep.grace-period:PT2H}")
+    private Duration gracePeriod;
+
+    @Scheduled(initialDelayString = "${appointments.overdue-sweep.initial-delay:PT1M}",
+               fixedDelayString = "${appointments.overdue-sweep.interval:PT15M}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        int total = 0;
+        AppointmentService.BatchResult batch;
+        do {
+            batch = appointmentService.markNoShowsBefore(cutoff, AppointmentService.STATUS_BATCH_SIZE);
+            total += batch.changed();
+        } while (batch.found() == AppointmentService.STATUS_BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Marked {} overdue appointments as NO_SHOW", total);
+        }
+    }
+}
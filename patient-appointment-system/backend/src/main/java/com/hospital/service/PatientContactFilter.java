@@ -0,0 +1,218 @@
+package com.hospital.service;
+
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
+import com.hospital.repository.PatientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filters over patient emails and phone numbers, so a create or update with a
+ * new email or phone can skip the uniqueness queries. A "no" is certain for everything
+ * this instance has seen committed; a "maybe" falls back to the query. Values that are
+ * changed or deleted stay in the filters until the next rebuild, which happens once the
+ * filters hold more values than they were sized for. The unique keys on both columns
+ * remain the authoritative check, for writes from other instances in particular.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class PatientContactFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientContactFilter.class);
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${patients.contact-filter.minimum-capacity:100000}")
+    private long minimumCapacity;
+
+    @Value("${patients.contact-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters filters;
+
+    // Receives committed values while a rebuild is reading the table
+    private volatile Filters rebuilding;
+
+    @PostConstruct
+    void warmUp() {
+        rebuild();
+        Gauge.builder("patients.contact.filter.fill", this, filter -> filter.filters.fill())
+                .description("Values added to the patient email and phone filters as a share of their capacity")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return email != null && filters.emails.mightContain(normalizeEmail(email));
+    }
+
+    public boolean mightContainPhone(String phone) {
+        return phone != null && filters.phones.mightContain(normalizePhone(phone));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        PatientSnapshot current = event.current();
+        if (current == null) {
+            return;
+        }
+        // Read before the filters: a rebuild that ends in between has swapped them in already
+        Filters next = rebuilding;
+        add(filters, current);
+        if (next != null) {
+            add(next, current);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${patients.contact-filter.check-interval:PT10M}")
+    public void rebuildIfSaturated() {
+        if (filters.fill() > 1.0) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long count = patientRepository.count();
+        // Room for the table to double before the false positive rate degrades
+        Filters next = new Filters(Math.max(minimumCapacity, count * 2), falsePositiveRate);
+        rebuilding = next;
+        try {
+            List<PatientSnapshot> patients = patientRepository.findAllSnapshots();
+            patients.forEach(patient -> add(next, patient));
+            filters = next;
+            logger.info("Patient contact filter built for {} patients, capacity {} ({} KiB per column)",
+                        patients.size(), next.capacity, next.emails.sizeInBytes() / 1024);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static void add(Filters target, PatientSnapshot patient) {
+        if (patient.email() != null) {
+            target.emails.add(normalizeEmail(patient.email()));
+        }
+        if (patient.phone() != null) {
+            target.phones.add(normalizePhone(patient.phone()));
+        }
+        target.added.incrementAndGet();
+    }
+
+    // Case-folded so collations that compare emails case-insensitively never see a false "no"
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizePhone(String phone) {
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static final class Filters {
+
+        final long capacity;
+        final BloomFilter emails;
+        final BloomFilter phones;
+        final AtomicLong added = new AtomicLong();
+
+        Filters(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+            this.phones = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        double fill() {
+            return (double) added.get() / capacity;
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over strings: k bit positions from two 64-bit hashes
+     * (Kirsch-Mitzenmacher), set with compare-and-set on a shared word array.
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(long capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        void add(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return bits / 8;
+        }
+
+        // FNV-1a over the UTF-8 bytes, finished with a mixer so nearby strings spread out
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb93fe53e6ec3L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.hospital.service;
+
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
+import com.hospital.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over patient full names for substring search.
+ * <p>
+ * Each name is indexed with the trigrams of {@code " " + name + " "} plus a
+ * {@code "  x"} marker for the first letter of every word. Posting lists are kept
+ * sorted by id. Queries of three or more characters walk the shortest list and look
+ * each id up in the others, shortest first, so only names holding every trigram of the
+ * query are compared with it. One- and two-letter queries match word prefixes and stop
+ * after {@code limit} matches, since nearly every name in their list qualifies.
+ * Results are ranked exact match, then name prefix, then word prefix, then
+ * anywhere, shorter names first.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class PatientNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientNameIndex.class);
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_WORD_PREFIX = 2;
+    private static final int RANK_CONTAINS = 3;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final Map<Long, String> namesById = new HashMap<>();
+
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void warmUp() {
+        List<PatientSnapshot> patients = patientRepository.findAllSnapshots();
+        lock.writeLock().lock();
+        try {
+            patients.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Patient name index warmed with {} patients and {} trigrams",
+                    patients.size(), postingsByTrigram.size());
+    }
+
+    /**
+     * Returns the ids of the best matching patients, best first, at most {@code limit}.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = postingsFor(normalized);
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+            Postings candidates = lists.get(0);
+            boolean wordPrefix = normalized.length() < 3;
+            // Ids ascend, so each lookup resumes where the previous one stopped
+            int[] from = new int[lists.size()];
+            // Keep the best {@code limit} matches; the worst one sits at the head of the queue
+            PriorityQueue<Match> best = new PriorityQueue<>(Comparator.<Match>naturalOrder().reversed());
+            for (int i = 0; i < candidates.size; i++) {
+                long id = candidates.ids[i];
+                if (!inAll(lists, from, id)) {
+                    continue;
+                }
+                String name = namesById.get(id);
+                int rank = rank(name, normalized);
+                if (rank < 0) {
+                    continue;
+                }
+                best.add(new Match(rank, name.length(), id));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (wordPrefix && best.size() == limit) {
+                    break;
+                }
+            }
+            List<Match> ordered = new ArrayList<>(best);
+            ordered.sort(null);
+            return ordered.stream().map(Match::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return namesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        if (event.current() != null && event.previous() != null
+                && event.current().fullName().equals(event.previous().fullName())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.previous() != null) {
+                remove(event.previous().id());
+            }
+            if (event.current() != null) {
+                put(event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(PatientSnapshot patient) {
+        remove(patient.id());
+        String name = normalize(patient.fullName());
+        namesById.put(patient.id(), name);
+        for (long trigram : trigramsOf(name)) {
+            postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(patient.id());
+        }
+    }
+
+    private void remove(Long id) {
+        String name = namesById.remove(id);
+        if (name == null) {
+            return;
+        }
+        for (long trigram : trigramsOf(name)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                postingsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    // Posting lists of the query's trigrams, shortest first; empty when one is missing
+    private List<Postings> postingsFor(String query) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        if (query.length() == 1) {
+            trigrams.add(pack(' ', ' ', query.charAt(0)));
+        } else if (query.length() == 2) {
+            trigrams.add(pack(' ', query.charAt(0), query.charAt(1)));
+        } else {
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                trigrams.add(pack(query.charAt(i), query.charAt(i + 1), query.charAt(i + 2)));
+            }
+        }
+        List<Postings> lists = new ArrayList<>(trigrams.size());
+        for (long trigram : trigrams) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null) {
+                // A trigram no name contains: nothing can match
+                return List.of();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        return lists;
+    }
+
+    private static boolean inAll(List<Postings> lists, int[] from, long id) {
+        for (int j = 1; j < lists.size(); j++) {
+            Postings postings = lists.get(j);
+            int at = Arrays.binarySearch(postings.ids, from[j], postings.size, id);
+            if (at < 0) {
+                from[j] = -at - 1;
+                return false;
+            }
+            from[j] = at + 1;
+        }
+        return true;
+    }
+
+    private static int rank(String name, String query) {
+        if (name.equals(query)) {
+            return RANK_EXACT;
+        }
+        if (name.startsWith(query)) {
+            return RANK_PREFIX;
+        }
+        if (name.contains(" " + query)) {
+            return RANK_WORD_PREFIX;
+        }
+        if (query.length() >= 3 && name.contains(query)) {
+            return RANK_CONTAINS;
+        }
+        return -1;
+    }
+
+    private static Set<Long> trigramsOf(String name) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        String padded = " " + name + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+        }
+        for (String word : name.split(" ")) {
+            if (!word.isEmpty()) {
+                trigrams.add(pack(' ', ' ', word.charAt(0)));
+            }
+        }
+        return trigrams;
+    }
+
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(int rank, int length, long id) implements Comparable<Match> {
+
+        @Override
+        public int compareTo(Match other) {
+            if (rank != other.rank) {
+                return Integer.compare(rank, other.rank);
+            }
+            if (length != other.length) {
+                return Integer.compare(length, other.length);
+            }
+            return Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Growable array of patient ids in ascending order; far smaller than a boxed set.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            // New patients have the highest ids, so this is nearly always an append
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                at = -at - 1;
+            } else if (at < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
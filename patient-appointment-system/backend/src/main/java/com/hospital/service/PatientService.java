@@ -1,49 +1,153 @@
 package com.hospital.service;
 
+import com.hospital.dto.CursorPage;
+import com.hospital.dto.ImportResult;
+import com.hospital.dto.PageCursor;
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
 import com.hospital.model.Patient;
+import com.hospital.repository.ArchivedAppointmentRepository;
 import com.hospital.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = ServiceMetrics.SERVICE_CALLS, histogram = true)
 public class PatientService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    
     @Autowired
     private PatientRepository patientRepository;
     
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    
+    @Autowired
+    private DashboardStatistics statistics;
+    
+    @Autowired
+    private PatientNameIndex nameIndex;
+    
+    @Autowired
+    private PatientContactFilter contactFilter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ServiceMetrics metrics;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // Sees rows committed after the caller's transaction began, and commits on its own
+    private TransactionTemplate newTransaction;
+    
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<Patient> getPatientsPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to find out whether another page exists
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Patient> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = patientRepository.findFirstPage(window);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = patientRepository.findPageAfter(after.timestamp(), after.id(), window);
+        }
+        return CursorPage.of(rows, pageSize,
+                last -> new PageCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getPatientsPage(String cursor, int limit, String fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+        try {
+            return patientRepository.findFieldsPage(fields, after, pageSize);
+        } catch (InvalidDataAccessApiUsageException e) {
+            // Unknown field names are reported by the repository as IllegalArgumentException
+            throw new IllegalArgumentException(e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Patient> getPatientById(Long id) {
         return patientRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Patient> getPatientByEmail(String email) {
-        return patientRepository.findByEmail(email);
+        return patientRepository.loadByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Patient> getPatientByPhone(String phone) {
         return patientRepository.findByPhone(phone);
     }
     
-    public List<Patient> searchPatientsByName(String name) {
-        return patientRepository.findByFullNameContaining(name);
+    @Transactional(readOnly = true)
+    public List<Patient> searchPatientsByName(String name, int limit) {
+        List<Long> rankedIds = nameIndex.search(name, Math.min(limit, MAX_PAGE_SIZE));
+        Map<Long, Patient> patientsById = patientRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        // Keep the index ranking; skip ids deleted since the index was read
+        return rankedIds.stream()
+                .map(patientsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
     
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsByGender(String gender) {
         return patientRepository.findByGender(gender);
     }
     
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsByBloodGroup(String bloodGroup) {
         return patientRepository.findByBloodGroup(bloodGroup);
     }
     
+    @Transactional(readOnly = true)
     public List<Patient> getPatientsRegisteredSince(LocalDate date) {
         return patientRepository.findPatientsRegisteredSince(date);
     }
@@ -51,15 +155,107 @@ public class PatientService {
     public Patient createPatient(Patient patient) {
         validatePatient(patient);
         
-        if (patientRepository.existsByEmail(patient.getEmail())) {
-            throw new RuntimeException("Patient with email " + patient.getEmail() + " already exists");
+        if (emailTaken(patient.getEmail(), null)) {
+            throw rejected("duplicate_email", "Patient with email " + patient.getEmail() + " already exists");
         }
         
-        if (patientRepository.existsByPhone(patient.getPhone())) {
-            throw new RuntimeException("Patient with phone " + patient.getPhone() + " already exists");
+        if (phoneTaken(patient.getPhone(), null)) {
+            throw rejected("duplicate_phone", "Patient with phone " + patient.getPhone() + " already exists");
         }
         
-        return patientRepository.save(patient);
+        Patient savedPatient = saveUnique(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.created(PatientSnapshot.of(savedPatient)));
+        return savedPatient;
+    }
+    
+    // Chunks commit on their own, so a duplicate written concurrently fails only its chunk
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResult importPatients(List<Patient> patients) {
+        BulkImports.checkSize(patients);
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < patients.size(); i++) {
+            String error = importError(patients.get(i));
+            if (error != null) {
+                errors.add(new ImportResult.RowError(i, error));
+            } else {
+                validRows.add(i);
+            }
+        }
+        
+        // One query per chunk instead of two lookups per row
+        List<Patient> candidates = validRows.stream().map(patients::get).toList();
+        // and only for values the contact filter cannot rule out
+        Set<String> takenEmails = newTransaction.execute(status -> BulkImports.findExisting(
+                candidates.stream().map(Patient::getEmail).filter(contactFilter::mightContainEmail).toList(),
+                patientRepository::findExistingEmails));
+        Set<String> takenPhones = newTransaction.execute(status -> BulkImports.findExisting(
+                candidates.stream().map(Patient::getPhone).filter(contactFilter::mightContainPhone).toList(),
+                patientRepository::findExistingPhones));
+        
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : validRows) {
+            Patient patient = patients.get(i);
+            // add() also rejects duplicates within the same request
+            if (!takenEmails.add(patient.getEmail())) {
+                metrics.validationRejected(ServiceMetrics.PATIENT, "duplicate_email");
+                errors.add(new ImportResult.RowError(i, "Patient with email " + patient.getEmail() + " already exists"));
+            } else if (!takenPhones.add(patient.getPhone())) {
+                metrics.validationRejected(ServiceMetrics.PATIENT, "duplicate_phone");
+                errors.add(new ImportResult.RowError(i, "Patient with phone " + patient.getPhone() + " already exists"));
+            } else {
+                accepted.add(i);
+            }
+        }
+        
+        int imported = 0;
+        for (int from = 0; from < accepted.size(); from += BulkImports.FLUSH_SIZE) {
+            List<Integer> rows = new ArrayList<>(accepted.subList(from, Math.min(from + BulkImports.FLUSH_SIZE, accepted.size())));
+            imported += importChunk(patients, rows, errors);
+        }
+        
+        errors.sort(Comparator.comparingInt(ImportResult.RowError::index));
+        return new ImportResult(patients.size(), imported, errors);
+    }
+    
+    // Rows that collide with one committed since the check are reported and the rest retried
+    private int importChunk(List<Patient> patients, List<Integer> rows, List<ImportResult.RowError> errors) {
+        while (!rows.isEmpty()) {
+            List<Patient> chunk = rows.stream().map(patients::get).toList();
+            chunk.forEach(patient -> patient.setId(null));
+            try {
+                newTransaction.executeWithoutResult(status -> {
+                    patientRepository.saveAll(chunk);
+                    patientRepository.flush();
+                    chunk.forEach(patient ->
+                            eventPublisher.publishEvent(PatientChangedEvent.created(PatientSnapshot.of(patient))));
+                });
+                return chunk.size();
+            } catch (DataIntegrityViolationException e) {
+                Set<String> takenEmails = newTransaction.execute(status -> normalizedEmails(
+                        patientRepository.findExistingEmails(chunk.stream().map(Patient::getEmail).toList())));
+                Set<String> takenPhones = newTransaction.execute(status -> new HashSet<>(
+                        patientRepository.findExistingPhones(chunk.stream().map(Patient::getPhone).toList())));
+                List<Integer> collided = new ArrayList<>();
+                for (int i : rows) {
+                    Patient patient = patients.get(i);
+                    if (takenEmails.contains(PatientContactFilter.normalizeEmail(patient.getEmail()))) {
+                        metrics.validationRejected(ServiceMetrics.PATIENT, "duplicate_email");
+                        errors.add(new ImportResult.RowError(i, "Patient with email " + patient.getEmail() + " already exists"));
+                        collided.add(i);
+                    } else if (takenPhones.contains(patient.getPhone())) {
+                        metrics.validationRejected(ServiceMetrics.PATIENT, "duplicate_phone");
+                        errors.add(new ImportResult.RowError(i, "Patient with phone " + patient.getPhone() + " already exists"));
+                        collided.add(i);
+                    }
+                }
+                if (collided.isEmpty()) {
+                    throw e;
+                }
+                rows.removeAll(collided);
+            }
+        }
+        return 0;
     }
     
     public Patient updatePatient(Long id, Patient patientDetails) {
@@ -68,18 +264,17 @@ public class PatientService {
         
         validatePatient(patientDetails);
         
-        // Check for email uniqueness (excluding current patient)
-        Optional<Patient> existingPatientWithEmail = patientRepository.findByEmail(patientDetails.getEmail());
-        if (existingPatientWithEmail.isPresent() && !existingPatientWithEmail.get().getId().equals(id)) {
-            throw new RuntimeException("Patient with email " + patientDetails.getEmail() + " already exists");
+        // Unchanged values are already unique; changed ones must not belong to another patient
+        if (!patientDetails.getEmail().equals(patient.getEmail()) && emailTaken(patientDetails.getEmail(), id)) {
+            throw rejected("duplicate_email", "Patient with email " + patientDetails.getEmail() + " already exists");
         }
         
-        // Check for phone uniqueness (excluding current patient)
-        Optional<Patient> existingPatientWithPhone = patientRepository.findByPhone(patientDetails.getPhone());
-        if (existingPatientWithPhone.isPresent() && !existingPatientWithPhone.get().getId().equals(id)) {
-            throw new RuntimeException("Patient with phone " + patientDetails.getPhone() + " already exists");
+        if (!patientDetails.getPhone().equals(patient.getPhone()) && phoneTaken(patientDetails.getPhone(), id)) {
+            throw rejected("duplicate_phone", "Patient with phone " + patientDetails.getPhone() + " already exists");
         }
         
+        PatientSnapshot previous = PatientSnapshot.of(patient);
+        
         // Update patient details
         patient.setFirstName(patientDetails.getFirstName());
         patient.setLastName(patientDetails.getLastName());
@@ -94,45 +289,133 @@ public class PatientService {
         patient.setAllergies(patientDetails.getAllergies());
         patient.setBloodGroup(patientDetails.getBloodGroup());
         
-        return patientRepository.save(patient);
+        Patient savedPatient = saveUnique(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.updated(previous, PatientSnapshot.of(savedPatient)));
+        return savedPatient;
     }
     
     public void deletePatient(Long id) {
-        if (!patientRepository.existsById(id)) {
-            throw new RuntimeException("Patient not found with id: " + id);
+        Patient patient = patientRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Patient not found with id: " + id));
+        
+        // Appointments are removed with the patient by cascade, archived ones explicitly
+        List<AppointmentSnapshot> removedAppointments = new ArrayList<>();
+        if (patient.getAppointments() != null) {
+            patient.getAppointments().forEach(appointment -> removedAppointments.add(AppointmentSnapshot.of(appointment)));
         }
-        patientRepository.deleteById(id);
+        archivedAppointmentRepository.findByPatientId(id).forEach(archived ->
+                removedAppointments.add(AppointmentSnapshot.of(archived.toAppointment())));
+        
+        archivedAppointmentRepository.deleteByPatientId(id);
+        patientRepository.delete(patient);
+        removedAppointments.forEach(appointment ->
+                eventPublisher.publishEvent(AppointmentChangedEvent.deleted(appointment)));
+        eventPublisher.publishEvent(PatientChangedEvent.deleted(PatientSnapshot.of(patient)));
     }
     
+    @Transactional(readOnly = true)
     public long getTotalPatients() {
-        return patientRepository.count();
+        return statistics.getTotalPatients();
     }
     
+    @Transactional(readOnly = true)
     public long getPatientCountByGender(String gender) {
         return patientRepository.countByGender(gender);
     }
     
+    private String importError(Patient patient) {
+        String violations = patient == null ? "Row is empty" : BulkImports.violations(validator, patient);
+        if (violations != null) {
+            metrics.validationRejected(ServiceMetrics.PATIENT, "invalid");
+            return violations;
+        }
+        try {
+            validatePatient(patient);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+    
     private void validatePatient(Patient patient) {
         if (patient.getFirstName() == null || patient.getFirstName().trim().isEmpty()) {
-            throw new RuntimeException("First name is required");
+            throw rejected("invalid", "First name is required");
         }
         if (patient.getLastName() == null || patient.getLastName().trim().isEmpty()) {
-            throw new RuntimeException("Last name is required");
+            throw rejected("invalid", "Last name is required");
         }
         if (patient.getEmail() == null || patient.getEmail().trim().isEmpty()) {
-            throw new RuntimeException("Email is required");
+            throw rejected("invalid", "Email is required");
         }
         if (patient.getPhone() == null || patient.getPhone().trim().isEmpty()) {
-            throw new RuntimeException("Phone is required");
+            throw rejected("invalid", "Phone is required");
         }
         if (patient.getDateOfBirth() == null) {
-            throw new RuntimeException("Date of birth is required");
+            throw rejected("invalid", "Date of birth is required");
         }
         if (patient.getDateOfBirth().isAfter(LocalDate.now())) {
-            throw new RuntimeException("Date of birth cannot be in the future");
+            throw rejected("invalid", "Date of birth cannot be in the future");
         }
         if (patient.getGender() == null || patient.getGender().trim().isEmpty()) {
-            throw new RuntimeException("Gender is required");
+            throw rejected("invalid", "Gender is required");
+        }
+    }
+    
+    // A "no" from the contact filter is certain; a "maybe" is settled by a query
+    private boolean emailTaken(String email, Long patientId) {
+        if (!contactFilter.mightContainEmail(email)) {
+            metrics.uniquenessCheck("email", false);
+            return false;
+        }
+        metrics.uniquenessCheck("email", true);
+        return patientId == null
+                ? patientRepository.existsByEmail(email)
+                : patientRepository.loadByEmail(email).filter(other -> !other.getId().equals(patientId)).isPresent();
+    }
+    
+    private boolean phoneTaken(String phone, Long patientId) {
+        if (!contactFilter.mightContainPhone(phone)) {
+            metrics.uniquenessCheck("phone", false);
+            return false;
         }
+        metrics.uniquenessCheck("phone", true);
+        return patientId == null
+                ? patientRepository.existsByPhone(phone)
+                : patientRepository.findByPhone(phone).filter(other -> !other.getId().equals(patientId)).isPresent();
+    }
+    
+    // Flushed here so the unique keys report a duplicate the checks above could not see,
+    // such as one written by another instance or a concurrent request, as a rejection.
+    // Key names differ between schemas, so the value now taken is looked up instead
+    private Patient saveUnique(Patient patient) {
+        try {
+            return patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException e) {
+            Long id = patient.getId();
+            String taken = newTransaction.execute(status ->
+                    patientRepository.findByPhone(patient.getPhone()).filter(other -> !other.getId().equals(id)).isPresent()
+                            ? "phone"
+                            : patientRepository.loadByEmail(patient.getEmail()).filter(other -> !other.getId().equals(id)).isPresent()
+                            ? "email" : null);
+            if ("phone".equals(taken)) {
+                throw rejected("duplicate_phone", "Patient with phone " + patient.getPhone() + " already exists");
+            }
+            if ("email".equals(taken)) {
+                throw rejected("duplicate_email", "Patient with email " + patient.getEmail() + " already exists");
+            }
+            throw e;
+        }
+    }
+    
+    // Compared case-folded, as collations that ignore case see these emails as duplicates
+    private static Set<String> normalizedEmails(List<String> emails) {
+        Set<String> normalized = new HashSet<>();
+        emails.forEach(email -> normalized.add(PatientContactFilter.normalizeEmail(email)));
+        return normalized;
+    }
+    
+    private RuntimeException rejected(String reason, String message) {
+        metrics.validationRejected(ServiceMetrics.PATIENT, reason);
+        return new RuntimeException(message);
     }
-} 
\ No newline at end of file
+}
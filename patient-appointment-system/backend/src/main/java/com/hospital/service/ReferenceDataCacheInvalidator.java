@@ -0,0 +1,99 @@
+package com.hospital.service;
+
+import com.hospital.config.CacheConfig;
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentSnapshot;
+import com.hospital.event.AppointmentsArchivedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Evicts the cached doctor and department lists after commit when an appointment change
+ * can alter them: a value that is not in the cached list appears, or the last
+ * appointment carrying a value may have been moved away or deleted. The per-department
+ * doctor lists follow the same rule, keyed by department. When no list is cached the key
+ * is evicted anyway, since a load that read the table before the commit may still be
+ * about to store its result.
+ */
+@Component
+public class ReferenceDataCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        evictIfChanged(CacheConfig.DOCTORS_CACHE, event, AppointmentSnapshot::doctorName);
+        evictIfChanged(CacheConfig.DEPARTMENTS_CACHE, event, AppointmentSnapshot::department);
+        evictDepartmentDoctorsIfChanged(event);
+    }
+
+    // Lists come from the live table; a doctor seen only in archived appointments drops out
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        for (String cacheName : List.of(CacheConfig.DOCTORS_CACHE, CacheConfig.DEPARTMENTS_CACHE,
+                                        CacheConfig.DEPARTMENT_DOCTORS_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void evictDepartmentDoctorsIfChanged(AppointmentChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.DEPARTMENT_DOCTORS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        AppointmentSnapshot previous = event.previous();
+        AppointmentSnapshot current = event.current();
+        if (current != null) {
+            Object cached = peek(cache, current.department());
+            if (!(cached instanceof List<?> doctors) || !doctors.contains(current.doctorName())) {
+                cache.evict(current.department());
+            }
+        }
+        boolean possiblyRemoved = previous != null && (current == null
+                || !Objects.equals(previous.department(), current.department())
+                || !Objects.equals(previous.doctorName(), current.doctorName()));
+        if (possiblyRemoved) {
+            cache.evict(previous.department());
+        }
+    }
+
+    private void evictIfChanged(String cacheName, AppointmentChangedEvent event,
+                                Function<AppointmentSnapshot, String> value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        Object cached = peek(cache, SimpleKey.EMPTY);
+        if (!(cached instanceof List<?> values)) {
+            cache.evict(SimpleKey.EMPTY);
+            return;
+        }
+
+        String previous = event.previous() != null ? value.apply(event.previous()) : null;
+        String current = event.current() != null ? value.apply(event.current()) : null;
+        boolean added = current != null && !values.contains(current);
+        boolean possiblyRemoved = previous != null && !Objects.equals(previous, current);
+        if (added || possiblyRemoved) {
+            cache.evict(SimpleKey.EMPTY);
+        }
+    }
+
+    // Peek without touching hit/miss statistics
+    @SuppressWarnings("unchecked")
+    private static Object peek(Cache cache, Object key) {
+        return cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine).policy().getIfPresentQuietly(key)
+                : cache.get(key, List.class);
+    }
+}
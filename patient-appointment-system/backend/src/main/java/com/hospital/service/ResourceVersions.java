@@ -0,0 +1,78 @@
+package com.hospital.service;
+
+import com.hospital.event.AppointmentChangedEvent;
+import com.hospital.event.AppointmentsArchivedEvent;
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validators for conditional GETs. Single resources are tagged from their own
+ * {@code updatedAt}; collections carry a version that moves on every committed change,
+ * so an unchanged list can be answered with 304 before any query runs.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String APPOINTMENTS = "appointments";
+    public static final String PATIENTS = "patients";
+
+    // Versions restart with the application, so tags from an earlier run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong appointmentsVersion = new AtomicLong();
+
+    private final AtomicLong patientsVersion = new AtomicLong();
+
+    // Bumped after commit: a request that read the old version may carry new data, never the reverse
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        appointmentsVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        appointmentsVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        patientsVersion.incrementAndGet();
+        // Appointment responses embed the patient
+        appointmentsVersion.incrementAndGet();
+    }
+
+    public String collectionTag(String collection) {
+        long version = switch (collection) {
+            case APPOINTMENTS -> appointmentsVersion.get();
+            case PATIENTS -> patientsVersion.get();
+            default -> throw new IllegalArgumentException("Unknown collection: " + collection);
+        };
+        return "\"" + collection + "-" + epoch + "-" + version + "\"";
+    }
+
+    public static String tag(Patient patient) {
+        return "\"patient-" + patient.getId() + "-" + stamp(patient.getUpdatedAt(), patient.getCreatedAt()) + "\"";
+    }
+
+    public static String tag(Appointment appointment) {
+        Patient patient = appointment.getPatient();
+        return "\"appointment-" + appointment.getId() + "-" +
+               stamp(appointment.getUpdatedAt(), appointment.getCreatedAt()) + "-" +
+               (patient == null ? "0" : stamp(patient.getUpdatedAt(), patient.getCreatedAt())) + "\"";
+    }
+
+    // Microseconds, the precision the timestamp columns keep
+    private static String stamp(LocalDateTime updatedAt, LocalDateTime createdAt) {
+        LocalDateTime time = updatedAt != null ? updatedAt : createdAt;
+        if (time == null) {
+            return "0";
+        }
+        return Long.toString(ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), time), 36);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hospital.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Meters for things the method timers cannot see: calls made from inside a service,
+ * booking conflicts and rejected input. Service methods themselves are timed through
+ * {@code @Timed(SERVICE_CALLS)}, repository queries by Spring Data's own
+ * {@code spring.data.repository.invocations}.
+ */
+@Component
+public class ServiceMetrics {
+
+    public static final String SERVICE_CALLS = "service.calls";
+
+    public static final String APPOINTMENT = "appointment";
+    public static final String PATIENT = "patient";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer availabilityChecks;
+
+    private Counter bookingConflicts;
+
+    @PostConstruct
+    void init() {
+        availabilityChecks = Timer.builder("appointments.availability.checks")
+                .description("Doctor availability checks against the schedule index")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        bookingConflicts = Counter.builder("appointments.booking.conflicts")
+                .description("Bookings and reschedules rejected because the doctor was busy")
+                .register(meterRegistry);
+    }
+
+    public boolean timeAvailabilityCheck(BooleanSupplier check) {
+        long start = System.nanoTime();
+        try {
+            return check.getAsBoolean();
+        } finally {
+            availabilityChecks.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void bookingConflict() {
+        bookingConflicts.increment();
+    }
+
+    /**
+     * Counts patient email and phone uniqueness checks; {@code queried} is false when the
+     * contact filter ruled the value out without a database query.
+     */
+    public void uniquenessCheck(String field, boolean queried) {
+        Counter.builder("patients.uniqueness.checks")
+                .description("Email and phone uniqueness checks on patient writes")
+                .tag("field", field)
+                .tag("result", queried ? "queried" : "filtered")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts input turned away before anything was written. {@code reason} is a short
+     * fixed label such as {@code invalid} or {@code duplicate_email}, never the message.
+     */
+    public void validationRejected(String entity, String reason) {
+        Counter.builder("validation.rejections")
+                .description("Create, update and import rows rejected by validation")
+                .tag("entity", entity)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
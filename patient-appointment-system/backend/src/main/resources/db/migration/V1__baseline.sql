@@ -0,0 +1,41 @@
+-- Schema as created by Hibernate before migrations were introduced
+
+CREATE TABLE patients (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    first_name        VARCHAR(255)  NOT NULL,
+    last_name         VARCHAR(255)  NOT NULL,
+    email             VARCHAR(255)  NOT NULL,
+    phone             VARCHAR(255)  NOT NULL,
+    date_of_birth     DATE          NOT NULL,
+    gender            VARCHAR(255)  NOT NULL,
+    address           VARCHAR(500),
+    emergency_contact VARCHAR(255),
+    emergency_phone   VARCHAR(255),
+    medical_history   VARCHAR(1000),
+    allergies         VARCHAR(500),
+    blood_group       VARCHAR(255),
+    created_at        DATETIME(6)   NOT NULL,
+    updated_at        DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE appointments (
+    id                   BIGINT        NOT NULL AUTO_INCREMENT,
+    patient_id           BIGINT        NOT NULL,
+    doctor_name          VARCHAR(255)  NOT NULL,
+    department           VARCHAR(255)  NOT NULL,
+    appointment_datetime DATETIME(6)   NOT NULL,
+    appointment_type     VARCHAR(255)  NOT NULL,
+    status               ENUM ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED', 'NO_SHOW') NOT NULL,
+    symptoms             VARCHAR(1000),
+    notes                VARCHAR(1000),
+    prescription         VARCHAR(2000),
+    diagnosis            VARCHAR(1000),
+    fee                  FLOAT(53),
+    room_number          VARCHAR(255),
+    created_at           DATETIME(6)   NOT NULL,
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) ENGINE = InnoDB;
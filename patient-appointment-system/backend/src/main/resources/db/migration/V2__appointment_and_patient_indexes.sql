@@ -0,0 +1,18 @@
+-- Composite indexes for the hot appointment and patient queries. Every query that
+-- filters on these leading columns ranges over appointment_datetime / created_at
+-- directly (no DATE() wrapping), so the second column is usable as well.
+
+-- Keyset pagination: ORDER BY appointment_datetime, id
+CREATE INDEX idx_appointments_datetime_id ON appointments (appointment_datetime, id);
+
+-- Doctor schedule and per-day lookups
+CREATE INDEX idx_appointments_doctor_datetime ON appointments (doctor_name, appointment_datetime);
+
+-- Upcoming / overdue / per-status listings
+CREATE INDEX idx_appointments_status_datetime ON appointments (status, appointment_datetime);
+
+-- Patient history; also covers the patient_id foreign key
+CREATE INDEX idx_appointments_patient_datetime ON appointments (patient_id, appointment_datetime);
+
+-- Keyset pagination: ORDER BY created_at, id
+CREATE INDEX idx_patients_created_id ON patients (created_at, id);
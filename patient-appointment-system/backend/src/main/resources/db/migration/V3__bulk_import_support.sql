@@ -0,0 +1,17 @@
+-- MySQL has no sequences, so Hibernate keeps the pooled id generators in one-row tables.
+-- next_val is the highest id of the first block handed out, so start 50 past the current maximum.
+
+CREATE TABLE patients_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO patients_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM patients;
+
+CREATE TABLE appointments_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO appointments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM appointments;
+
+-- Bulk import checks phones with IN lists; email is already covered by its unique key
+CREATE INDEX idx_patients_phone ON patients (phone);
@@ -0,0 +1,26 @@
+-- Changes feed: clients ask for rows written after a (updated_at, id) position.
+
+-- Rows from before updated_at was always set would never show up in the feed
+UPDATE appointments SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE patients SET updated_at = created_at WHERE updated_at IS NULL;
+
+-- Keyset scan: WHERE updated_at >= ? ... ORDER BY updated_at, id
+CREATE INDEX idx_appointments_updated_id ON appointments (updated_at, id);
+CREATE INDEX idx_patients_updated_id ON patients (updated_at, id);
+
+-- Deletions, kept long enough for offline clients to catch up
+CREATE TABLE tombstones (
+    id           BIGINT       NOT NULL,
+    entity_type  VARCHAR(20)  NOT NULL,
+    entity_id    BIGINT       NOT NULL,
+    deleted_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_tombstones_deleted_id ON tombstones (deleted_at, id);
+
+CREATE TABLE tombstones_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO tombstones_seq (next_val) VALUES (50);
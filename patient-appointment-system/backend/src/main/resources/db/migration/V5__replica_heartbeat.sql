@@ -0,0 +1,6 @@
+-- Read replica routing: the primary stamps this row, the replica's copy shows its lag.
+CREATE TABLE replica_heartbeat (
+    id       INT          NOT NULL,
+    beat_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
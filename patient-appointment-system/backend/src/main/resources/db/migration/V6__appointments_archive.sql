@@ -0,0 +1,24 @@
+-- Closed appointments past the archive horizon, moved out of the live table in batches.
+CREATE TABLE appointments_archive (
+    id                   BIGINT        NOT NULL,
+    patient_id           BIGINT        NOT NULL,
+    doctor_name          VARCHAR(255)  NOT NULL,
+    department           VARCHAR(255)  NOT NULL,
+    appointment_datetime DATETIME(6)   NOT NULL,
+    appointment_type     VARCHAR(255)  NOT NULL,
+    status               ENUM ('SCHEDULED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED', 'NO_SHOW') NOT NULL,
+    symptoms             VARCHAR(1000),
+    notes                VARCHAR(1000),
+    prescription         VARCHAR(2000),
+    diagnosis            VARCHAR(1000),
+    fee                  FLOAT(53),
+    room_number          VARCHAR(255),
+    created_at           DATETIME(6)   NOT NULL,
+    updated_at           DATETIME(6),
+    archived_at          DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_archive_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) ENGINE = InnoDB;
+
+-- Patient history reads the archive by patient
+CREATE INDEX idx_appointments_archive_patient_datetime ON appointments_archive (patient_id, appointment_datetime);
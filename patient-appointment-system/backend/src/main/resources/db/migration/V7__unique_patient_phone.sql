@@ -0,0 +1,6 @@
+-- Phone numbers become unique like emails; the unique key replaces the plain index.
+-- Fails if duplicates exist: find them with
+--   SELECT phone, COUNT(*) FROM patients GROUP BY phone HAVING COUNT(*) > 1;
+ALTER TABLE patients ADD CONSTRAINT uk_patients_phone UNIQUE (phone);
+
+DROP INDEX idx_patients_phone ON patients;
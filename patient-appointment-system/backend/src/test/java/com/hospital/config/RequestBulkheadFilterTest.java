@@ -0,0 +1,98 @@
+package com.hospital.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBulkheadFilterTest {
+
+    private RequestBulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestBulkheadFilter();
+        ReflectionTestUtils.setField(filter, "maxConcurrentRequests", 1);
+        ReflectionTestUtils.setField(filter, "acquireTimeout", Duration.ZERO);
+        filter.init();
+    }
+
+    @Test
+    void releasesPermitWhenRequestReturns() throws Exception {
+        assertThat(send().getStatus()).isEqualTo(200);
+        assertThat(send().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void asyncRequestHoldsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/patients/export");
+        streaming.setAsyncSupported(true);
+        filter.doFilter(streaming, new MockHttpServletResponse(), new MockFilterChain(new AsyncServlet()));
+        assertThat(streaming.isAsyncStarted()).isTrue();
+
+        assertThat(send().getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) streaming.getAsyncContext()).complete();
+        assertThat(send().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void abortedExportReleasesPermitOnce() throws Exception {
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/appointments/export");
+        streaming.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(streaming, response, new MockFilterChain(new AsyncServlet()));
+        MockAsyncContext asyncContext = (MockAsyncContext) streaming.getAsyncContext();
+
+        AsyncEvent error = new AsyncEvent(asyncContext, streaming, response, new IOException("Broken pipe"));
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(error);
+        }
+        assertThat(send().getStatus()).isEqualTo(200);
+
+        asyncContext.complete();
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(filter, "permits");
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void liveUpdateStreamsTakeNoPermit() throws Exception {
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/events");
+        stream.setServletPath("/events");
+        stream.setAsyncSupported(true);
+        filter.doFilter(stream, new MockHttpServletResponse(), new MockFilterChain(new AsyncServlet()));
+        assertThat(stream.isAsyncStarted()).isTrue();
+
+        assertThat(send().getStatus()).isEqualTo(200);
+        Semaphore permits = (Semaphore) ReflectionTestUtils.getField(filter, "permits");
+        assertThat(permits.availablePermits()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse send() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/patients"), response, new MockFilterChain());
+        return response;
+    }
+
+    // Stands in for a StreamingResponseBody or SSE handler: starts async and returns at once
+    private static class AsyncServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            request.startAsync();
+        }
+    }
+}
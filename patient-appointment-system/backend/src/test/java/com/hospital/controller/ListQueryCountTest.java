@@ -0,0 +1,148 @@
+package com.hospital.controller;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import com.hospital.service.AppointmentService;
+import com.hospital.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serializes list endpoints for a small and a large result and checks, through Hibernate
+ * statistics, that both take the same few statements: no per-row patient or appointment loads.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListQueryCountTest {
+
+    private static final int FEW = 2;
+
+    private static final int MANY = 25;
+
+    // Both sizes must fit in one page
+    private static final int PAGE = 100;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    // Without the security filters; open-in-view still applies, as in the running application
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    private final String unique = UUID.randomUUID().toString().substring(0, 8);
+
+    private Patient patientWithMany;
+
+    @BeforeAll
+    void seed() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.DAYS).plusHours(8);
+        // Every appointment gets its own patient, so a per-row patient load would show
+        for (int i = 0; i < MANY; i++) {
+            Patient patient = createPatient(gender(MANY), i);
+            book(patient, doctor(MANY), start.plusHours(i));
+            book(patient, doctor("history"), start.plusHours(i));
+            if (i == 0) {
+                patientWithMany = patient;
+            }
+        }
+        for (int i = 0; i < FEW; i++) {
+            book(createPatient(gender(FEW), MANY + i), doctor(FEW), start.plusHours(i));
+        }
+        for (int i = 1; i < MANY; i++) {
+            book(patientWithMany, doctor("history " + i), start.plusDays(1).plusHours(i));
+        }
+    }
+
+    @Test
+    void appointmentPageStatementsDoNotGrowWithRows() throws Exception {
+        assertSameStatementCount("/appointments?limit=" + FEW, "/appointments?limit=" + PAGE);
+    }
+
+    @Test
+    void appointmentsByDoctorStatementsDoNotGrowWithRows() throws Exception {
+        assertSameStatementCount("/appointments/doctor/" + doctor(FEW), "/appointments/doctor/" + doctor(MANY));
+    }
+
+    @Test
+    void patientPageStatementsDoNotGrowWithRows() throws Exception {
+        assertSameStatementCount("/patients?limit=" + FEW, "/patients?limit=" + PAGE);
+    }
+
+    @Test
+    void patientsByGenderDoNotLoadTheirAppointments() throws Exception {
+        assertSameStatementCount("/patients/gender/" + gender(FEW), "/patients/gender/" + gender(MANY));
+    }
+
+    @Test
+    void patientHistoryStatementsDoNotGrowWithRows() throws Exception {
+        Patient patientWithFew = createPatient(gender("history"), 2 * MANY);
+        book(patientWithFew, doctor("few history"), LocalDateTime.now().plusDays(40));
+        assertSameStatementCount("/appointments/patient/" + patientWithFew.getId(),
+                "/appointments/patient/" + patientWithMany.getId());
+    }
+
+    private void assertSameStatementCount(String fewRows, String manyRows) throws Exception {
+        long few = statementsFor(fewRows);
+        long many = statementsFor(manyRows);
+        assertThat(many).as("statements for %s (%s took %d)", manyRows, fewRows, few).isEqualTo(few);
+        assertThat(many).as("statements for %s", manyRows).isLessThanOrEqualTo(3);
+    }
+
+    // Counted with a cold entity cache, so cached patients cannot hide per-row loads
+    private long statementsFor(String uri) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Patient createPatient(String gender, int index) {
+        long phone = 2_000_000_000L + Math.abs(UUID.randomUUID().getMostSignificantBits() % 1_000_000_000L);
+        return patientService.createPatient(new Patient("Count", "Patient" + index,
+                unique + "-" + gender.length() + "-" + index + "@example.com", String.valueOf(phone),
+                LocalDate.of(1980, 1, 1), gender));
+    }
+
+    private void book(Patient patient, String doctorName, LocalDateTime start) {
+        appointmentService.createAppointment(new Appointment(patient, doctorName, "Cardiology", start, "Consultation"));
+    }
+
+    private String gender(Object size) {
+        return "G" + size + "-" + unique;
+    }
+
+    private String doctor(Object size) {
+        return "Dr. Count " + size + " " + unique;
+    }
+}
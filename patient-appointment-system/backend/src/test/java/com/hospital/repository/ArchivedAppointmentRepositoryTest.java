@@ -0,0 +1,59 @@
+package com.hospital.repository;
+
+import com.hospital.model.Patient;
+import com.hospital.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ArchivedAppointmentRepositoryTest {
+
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Patient patient;
+
+    @AfterEach
+    void cleanUp() {
+        if (patient != null) {
+            patientService.deletePatient(patient.getId());
+        }
+    }
+
+    @Test
+    void copyKeepsUnrelatedCacheRegions() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        long phone = 5_200_000_000L + (UUID.randomUUID().getMostSignificantBits() & 0x3fffffffL);
+        patient = patientService.createPatient(new Patient("Archive", "Test", unique + "@example.com",
+                String.valueOf(phone), LocalDate.of(1980, 1, 1), "Other"));
+        transactionTemplate.executeWithoutResult(status -> patientRepository.findById(patient.getId()));
+        assertThat(entityManagerFactory.getCache().contains(Patient.class, patient.getId())).isTrue();
+
+        transactionTemplate.executeWithoutResult(status ->
+                archivedAppointmentRepository.copyFromAppointments(List.of(-1L), LocalDateTime.now()));
+
+        assertThat(entityManagerFactory.getCache().contains(Patient.class, patient.getId())).isTrue();
+    }
+}
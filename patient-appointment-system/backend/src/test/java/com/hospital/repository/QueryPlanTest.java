@@ -0,0 +1,177 @@
+package com.hospital.repository;
+
+import com.hospital.model.Appointment.AppointmentStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot repository queries against a seeded H2 database, then EXPLAINs the SQL
+ * Hibernate sent and checks that the expected index is used rather than a table scan.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.hospital.repository.QueryPlanTest$RecordingInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    // Far above anything the sequences hand out while the other tests run
+    private static final long FIRST_ID = 50_000_000L;
+
+    private static final int PATIENTS = 500;
+
+    private static final int APPOINTMENTS = 20_000;
+
+    private static final String DOCTOR = "Dr. Plan 7";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO patients (id, first_name, last_name, email, phone, date_of_birth, gender, " +
+                "created_at, updated_at) SELECT ? + x, 'Plan', 'Patient' || x, 'plan-' || x || '@example.com', " +
+                "CAST(9000000000 + x AS VARCHAR), DATE '1980-01-01', 'Other', " +
+                "TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE, " +
+                "TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE FROM SYSTEM_RANGE(1, ?)",
+                FIRST_ID, PATIENTS);
+        // Closed appointments in the past, spread over 50 doctors and 500 days
+        jdbcTemplate.update("INSERT INTO appointments (id, patient_id, doctor_name, department, appointment_datetime, " +
+                "appointment_type, status, created_at, updated_at) SELECT ? + x, ? + MOD(x, ?) + 1, " +
+                "'Dr. Plan ' || MOD(x, 50), 'Dept ' || MOD(x, 10), " +
+                "TIMESTAMP '2020-01-01 08:00:00' + MOD(x, 500) * INTERVAL '1' DAY + MOD(x, 16) * INTERVAL '30' MINUTE, " +
+                "'Consultation', CASE MOD(x, 3) WHEN 0 THEN 'COMPLETED' WHEN 1 THEN 'CANCELLED' ELSE 'NO_SHOW' END, " +
+                "TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE, " +
+                "TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1' MINUTE FROM SYSTEM_RANGE(1, ?)",
+                FIRST_ID, FIRST_ID, PATIENTS, APPOINTMENTS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM appointments WHERE id > ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM patients WHERE id > ?", FIRST_ID);
+    }
+
+    @BeforeEach
+    void clearRecorded() {
+        RecordingInspector.statements.clear();
+        RecordingInspector.thread = Thread.currentThread();
+    }
+
+    @Test
+    void doctorDayQueriesSeekDoctorDatetimeIndex() {
+        LocalDateTime day = LocalDateTime.of(2020, 3, 1, 0, 0);
+        appointmentRepository.findByDoctorAndDate(DOCTOR, day);
+        assertUsesIndex("idx_appointments_doctor_datetime");
+
+        appointmentRepository.countByDoctorAndDate(DOCTOR, day);
+        assertUsesIndex("idx_appointments_doctor_datetime");
+    }
+
+    @Test
+    void appointmentPagesReadDatetimeIdIndex() {
+        appointmentRepository.findFirstPage(PageRequest.of(0, 51));
+        assertUsesIndex("idx_appointments_datetime_id");
+
+        appointmentRepository.findPageAfter(LocalDateTime.of(2020, 6, 1, 8, 0), FIRST_ID + 100, PageRequest.of(0, 51));
+        assertUsesIndex("idx_appointments_datetime_id");
+    }
+
+    @Test
+    void patientHistorySeeksByPatient() {
+        appointmentRepository.findByPatientId(FIRST_ID + 42);
+        // H2 gives the foreign key its own patient_id index and may pick either; MySQL reuses ours
+        assertUsesIndex("(idx_appointments_patient_datetime|fk\\w+_index_\\w+): patient_id = ");
+    }
+
+    @Test
+    void overdueSweepSeeksStatusDatetimeIndex() {
+        appointmentRepository.findSnapshotsBefore(LocalDateTime.of(2021, 1, 1, 0, 0),
+                List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED), PageRequest.of(0, 500));
+        assertUsesIndex("idx_appointments_status_datetime");
+    }
+
+    @Test
+    void changesFeedSeeksUpdatedIdIndexes() {
+        appointmentRepository.findChangedAfter(LocalDateTime.of(2020, 1, 5, 0, 0), FIRST_ID,
+                LocalDateTime.of(2020, 1, 20, 0, 0), PageRequest.of(0, 101));
+        assertUsesIndex("idx_appointments_updated_id");
+
+        patientRepository.findChangedAfter(LocalDateTime.of(2020, 1, 1, 3, 0), FIRST_ID,
+                LocalDateTime.of(2020, 1, 1, 8, 0), PageRequest.of(0, 101));
+        assertUsesIndex("idx_patients_updated_id");
+    }
+
+    @Test
+    void patientKeysetPageSeeksCreatedIdIndex() {
+        patientRepository.findPageAfter(LocalDateTime.of(2020, 1, 1, 3, 0), FIRST_ID + 180, PageRequest.of(0, 51));
+        assertUsesIndex("idx_patients_created_id");
+    }
+
+    // EXPLAINs the last statement Hibernate prepared; the plan is fixed at prepare time,
+    // so every parameter is bound to null. indexPattern is a regex over the lower-cased plan.
+    private void assertUsesIndex(String indexPattern) {
+        assertThat(RecordingInspector.statements).as("statements sent").isNotEmpty();
+        String sql = RecordingInspector.statements.get(RecordingInspector.statements.size() - 1);
+        String plan = explain(sql).toLowerCase(Locale.ROOT);
+        assertThat(plan)
+                .as("plan for %s", sql)
+                .containsPattern(indexPattern)
+                .doesNotContain("tablescan");
+        RecordingInspector.statements.clear();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (var rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    // Keeps the test thread's statements only, so scheduled jobs cannot interleave
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        static volatile Thread thread;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
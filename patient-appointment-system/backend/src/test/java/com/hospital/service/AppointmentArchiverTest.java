@@ -0,0 +1,34 @@
+package com.hospital.service;
+
+import com.hospital.service.AppointmentService.BatchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentArchiverTest {
+
+    private final AppointmentService appointmentService = mock(AppointmentService.class);
+
+    private final AppointmentArchiver archiver = new AppointmentArchiver();
+
+    @Test
+    void batchWithReopenedRowsDoesNotEndTheRun() {
+        ReflectionTestUtils.setField(archiver, "appointmentService", appointmentService);
+        ReflectionTestUtils.setField(archiver, "horizon", Duration.ofDays(365));
+        ReflectionTestUtils.setField(archiver, "batchSize", 10);
+        when(appointmentService.archiveClosedBefore(any(LocalDateTime.class), eq(10)))
+                .thenReturn(new BatchResult(10, 9), new BatchResult(10, 0), new BatchResult(4, 4));
+
+        archiver.archive();
+
+        verify(appointmentService, times(3)).archiveClosedBefore(any(LocalDateTime.class), eq(10));
+    }
+}
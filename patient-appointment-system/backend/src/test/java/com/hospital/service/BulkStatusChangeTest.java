@@ -0,0 +1,100 @@
+package com.hospital.service;
+
+import com.hospital.dto.AppointmentFilter;
+import com.hospital.dto.BulkStatusRequest;
+import com.hospital.dto.BulkStatusResult;
+import com.hospital.model.Appointment;
+import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkStatusChangeTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    private Patient patient;
+
+    private String doctorName;
+
+    private LocalDateTime slot;
+
+    @BeforeEach
+    void setUp() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        long phone = 1_000_000_000L + (UUID.randomUUID().getMostSignificantBits() & 0x7fffffffL);
+        patient = patientService.createPatient(new Patient("Bulk", "Test", unique + "@example.com",
+                String.valueOf(phone), LocalDate.of(1980, 1, 1), "Other"));
+        doctorName = "Dr. Bulk " + unique;
+        slot = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void reopeningByIdsRejectsSlotsTakenSinceCancellation() {
+        Appointment first = book(slot);
+        appointmentService.cancelAppointment(first.getId());
+        Appointment replacement = book(slot);
+        Appointment elsewhere = book(slot.plusHours(2));
+        appointmentService.cancelAppointment(elsewhere.getId());
+
+        BulkStatusResult result = appointmentService.updateAppointmentStatuses(new BulkStatusRequest(
+                AppointmentStatus.SCHEDULED, List.of(first.getId(), elsewhere.getId()), null));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).containsExactly(first.getId());
+        assertThat(statusOf(first)).isEqualTo(AppointmentStatus.CANCELLED);
+        assertThat(statusOf(elsewhere)).isEqualTo(AppointmentStatus.SCHEDULED);
+        assertThat(statusOf(replacement)).isEqualTo(AppointmentStatus.SCHEDULED);
+    }
+
+    @Test
+    void reopeningByFilterAdmitsOneAppointmentPerSlot() {
+        List<Appointment> cancelled = List.of(bookCancelled(slot), bookCancelled(slot), bookCancelled(slot.plusMinutes(15)));
+        AppointmentFilter filter = new AppointmentFilter(AppointmentStatus.CANCELLED, doctorName, null, null, null);
+
+        BulkStatusResult result = appointmentService.updateAppointmentStatuses(
+                new BulkStatusRequest(AppointmentStatus.CONFIRMED, null, filter));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).hasSize(2);
+        assertThat(cancelled.stream().filter(a -> statusOf(a) == AppointmentStatus.CONFIRMED)).hasSize(1);
+    }
+
+    @Test
+    void confirmingScheduledAppointmentsIsNotAConflict() {
+        Appointment scheduled = book(slot);
+
+        BulkStatusResult result = appointmentService.updateAppointmentStatuses(new BulkStatusRequest(
+                AppointmentStatus.CONFIRMED, List.of(scheduled.getId()), null));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejected()).isEmpty();
+    }
+
+    private Appointment book(LocalDateTime start) {
+        return appointmentService.createAppointment(
+                new Appointment(patient, doctorName, "Cardiology", start, "Consultation"));
+    }
+
+    private Appointment bookCancelled(LocalDateTime start) {
+        return appointmentService.cancelAppointment(book(start).getId());
+    }
+
+    private AppointmentStatus statusOf(Appointment appointment) {
+        return appointmentService.getAppointmentById(appointment.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,108 @@
+package com.hospital.service;
+
+import com.hospital.dto.ChangeSet;
+import com.hospital.dto.ChangesCursor;
+import com.hospital.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paging through rows stamped long ago, with the overlap stretched so that
+ * "now - overlap" falls among them and can be moved forward between calls.
+ */
+@SpringBootTest
+class ChangeFeedServiceTest {
+
+    // Far above anything the sequences hand out while the other tests run
+    private static final long FIRST_ID = 61_000_000L;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Object target;
+
+    private Duration overlap;
+
+    private Duration tombstoneRetention;
+
+    private LocalDateTime settled;
+
+    @BeforeEach
+    void setUp() {
+        target = AopTestUtils.getTargetObject(changeFeedService);
+        overlap = (Duration) ReflectionTestUtils.getField(target, "overlap");
+        tombstoneRetention = (Duration) ReflectionTestUtils.getField(target, "tombstoneRetention");
+        ReflectionTestUtils.setField(target, "tombstoneRetention", Duration.ofDays(365 * 100));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(target, "overlap", overlap);
+        ReflectionTestUtils.setField(target, "tombstoneRetention", tombstoneRetention);
+        jdbcTemplate.update("DELETE FROM patients WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void pagingNeverMovesPastSettledRows() {
+        insert(FIRST_ID, LocalDateTime.of(2001, 1, 2, 0, 0));
+        insert(FIRST_ID + 1, LocalDateTime.of(2001, 1, 3, 0, 0));
+        insert(FIRST_ID + 2, LocalDateTime.of(2001, 9, 1, 0, 0));
+        insert(FIRST_ID + 3, LocalDateTime.of(2001, 10, 1, 0, 0));
+        settleAt(LocalDateTime.of(2001, 6, 1, 0, 0));
+
+        List<Long> received = new ArrayList<>();
+        String since = read("2001-01-01T00:00:00", received, FIRST_ID + 2);
+        // Stamped within the overlap, committed after newer rows had been read; by the
+        // time it is visible the settled point has moved past it
+        insert(FIRST_ID + 4, LocalDateTime.of(2001, 8, 1, 0, 0));
+        settleAt(LocalDateTime.of(2001, 8, 15, 0, 0));
+        since = read(since, received, null);
+        settleAt(LocalDateTime.of(2002, 1, 1, 0, 0));
+        read(since, received, null);
+
+        assertThat(received).contains(FIRST_ID, FIRST_ID + 1, FIRST_ID + 2, FIRST_ID + 3, FIRST_ID + 4);
+    }
+
+    // Pages until caught up, or until the stop row arrives
+    private String read(String since, List<Long> received, Long stop) {
+        for (int call = 0; call < 20; call++) {
+            ChangeSet changes = changeFeedService.getChanges(since, 1);
+            changes.patients().stream().map(Patient::getId).filter(id -> id >= FIRST_ID).forEach(received::add);
+            since = changes.next();
+            if (changes.hasMore()) {
+                assertThat(ChangesCursor.decode(since).patients().timestamp())
+                        .isBeforeOrEqualTo(settled);
+            }
+            if (!changes.hasMore() || received.contains(stop)) {
+                return since;
+            }
+        }
+        throw new AssertionError("Changes feed did not catch up");
+    }
+
+    private void settleAt(LocalDateTime settled) {
+        this.settled = settled;
+        ReflectionTestUtils.setField(target, "overlap", Duration.between(settled, LocalDateTime.now()));
+    }
+
+    private void insert(long id, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO patients (id, first_name, last_name, email, phone, date_of_birth, gender, " +
+                "created_at, updated_at) VALUES (?, 'Feed', 'Test', ?, ?, DATE '1980-01-01', 'Other', ?, ?)",
+                id, "feed-" + id + "@example.com", String.valueOf(3_000_000_000L + id), updatedAt, updatedAt);
+    }
+}
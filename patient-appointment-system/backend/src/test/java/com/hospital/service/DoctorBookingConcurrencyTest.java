@@ -0,0 +1,166 @@
+package com.hospital.service;
+
+import com.hospital.model.Appointment;
+import com.hospital.model.Appointment.AppointmentStatus;
+import com.hospital.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class DoctorBookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    private Patient patient;
+
+    private String doctorName;
+
+    private LocalDateTime slot;
+
+    @BeforeEach
+    void setUp() {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        long phone = 1_000_000_000L + (UUID.randomUUID().getMostSignificantBits() & 0x7fffffffL);
+        patient = patientService.createPatient(new Patient("Stress", "Test", unique + "@example.com",
+                String.valueOf(phone), LocalDate.of(1980, 1, 1), "Other"));
+        doctorName = "Dr. Stress " + unique;
+        slot = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void concurrentBookingsForOneSlotAdmitExactlyOne() throws Exception {
+        List<Callable<Appointment>> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // Starts inside the conflict window of each other, not only the identical time
+            LocalDateTime start = slot.plusMinutes(i % 3 * 10);
+            bookings.add(() -> appointmentService.createAppointment(newAppointment(start)));
+        }
+
+        assertThat(succeeded(runTogether(bookings))).isEqualTo(1);
+        assertThat(activeAppointments()).hasSize(1);
+    }
+
+    @Test
+    void concurrentBookingsForDifferentDoctorsAllSucceed() throws Exception {
+        List<Callable<Appointment>> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String otherDoctor = doctorName + " #" + i;
+            bookings.add(() -> {
+                Appointment appointment = newAppointment(slot);
+                appointment.setDoctorName(otherDoctor);
+                return appointmentService.createAppointment(appointment);
+            });
+        }
+
+        assertThat(succeeded(runTogether(bookings))).isEqualTo(THREADS);
+    }
+
+    @Test
+    void reopeningACancelledAppointmentChecksTheSlot() {
+        Appointment first = appointmentService.createAppointment(newAppointment(slot));
+        appointmentService.cancelAppointment(first.getId());
+        appointmentService.createAppointment(newAppointment(slot));
+
+        assertThatThrownBy(() -> appointmentService.updateAppointmentStatus(first.getId(), AppointmentStatus.SCHEDULED))
+                .hasMessageContaining("not available");
+        assertThatThrownBy(() -> appointmentService.updateAppointment(first.getId(), reopened(first)))
+                .hasMessageContaining("not available");
+        assertThat(activeAppointments()).hasSize(1);
+    }
+
+    @Test
+    void concurrentReopenAndBookingAdmitExactlyOne() throws Exception {
+        List<Long> cancelled = new ArrayList<>();
+        for (int i = 0; i < THREADS / 2; i++) {
+            Appointment appointment = appointmentService.createAppointment(newAppointment(slot));
+            appointmentService.cancelAppointment(appointment.getId());
+            cancelled.add(appointment.getId());
+        }
+
+        List<Callable<Appointment>> attempts = new ArrayList<>();
+        for (Long id : cancelled) {
+            attempts.add(() -> appointmentService.updateAppointmentStatus(id, AppointmentStatus.CONFIRMED));
+            attempts.add(() -> appointmentService.createAppointment(newAppointment(slot)));
+        }
+
+        assertThat(succeeded(runTogether(attempts))).isEqualTo(1);
+        assertThat(activeAppointments()).hasSize(1);
+    }
+
+    private Appointment newAppointment(LocalDateTime start) {
+        Appointment appointment = new Appointment(patient, doctorName, "Cardiology", start, "Consultation");
+        appointment.setFee(100.0);
+        return appointment;
+    }
+
+    private Appointment reopened(Appointment original) {
+        Appointment details = newAppointment(original.getAppointmentDateTime());
+        details.setStatus(AppointmentStatus.SCHEDULED);
+        return details;
+    }
+
+    private List<Appointment> activeAppointments() {
+        return appointmentService.getAppointmentsByDoctor(doctorName).stream()
+                .filter(appointment -> appointment.getStatus() == AppointmentStatus.SCHEDULED
+                        || appointment.getStatus() == AppointmentStatus.CONFIRMED)
+                .toList();
+    }
+
+    // Releases every task at once so they contend for the doctor lock
+    private static List<Future<Appointment>> runTogether(List<Callable<Appointment>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Appointment>> results = new ArrayList<>();
+            for (Callable<Appointment> task : tasks) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int succeeded(List<Future<Appointment>> results) throws InterruptedException {
+        int succeeded = 0;
+        for (Future<Appointment> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).hasMessageContaining("not available");
+            }
+        }
+        return succeeded;
+    }
+}
@@ -0,0 +1,76 @@
+package com.hospital.service;
+
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
+import com.hospital.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PatientContactFilterTest {
+
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+
+    private final PatientContactFilter filter = new PatientContactFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "patientRepository", patientRepository);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "minimumCapacity", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        when(patientRepository.findAllSnapshots()).thenReturn(List.of(snapshot("old@example.com", "5550001")));
+        filter.warmUp();
+    }
+
+    @Test
+    void commitDuringRebuildReachesTheNewFilters() throws Exception {
+        CountDownLatch adding = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        // Committed after the rebuild read the table; the listener stalls while adding it
+        PatientSnapshot committed = mock(PatientSnapshot.class);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(committed.email()).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                adding.countDown();
+                rebuilt.await(10, TimeUnit.SECONDS);
+            }
+            return "late@example.com";
+        });
+        CompletableFuture<?>[] listener = new CompletableFuture<?>[1];
+        when(patientRepository.findAllSnapshots()).thenAnswer(invocation -> {
+            listener[0] = CompletableFuture.runAsync(() -> filter.onPatientChanged(PatientChangedEvent.created(committed)));
+            assertThat(adding.await(10, TimeUnit.SECONDS)).isTrue();
+            return List.of(snapshot("old@example.com", "5550001"));
+        });
+
+        ReflectionTestUtils.invokeMethod(filter, "rebuild");
+        rebuilt.countDown();
+        listener[0].get(10, TimeUnit.SECONDS);
+
+        assertThat(filter.mightContainEmail("late@example.com")).isTrue();
+        assertThat(filter.mightContainEmail("old@example.com")).isTrue();
+    }
+
+    @Test
+    void valuesAreMatchedNormalized() {
+        filter.onPatientChanged(PatientChangedEvent.created(snapshot("New.Patient@Example.com", "+1 (555) 000-2")));
+
+        assertThat(filter.mightContainEmail(" new.patient@example.com")).isTrue();
+        assertThat(filter.mightContainPhone("15550002")).isTrue();
+    }
+
+    private static PatientSnapshot snapshot(String email, String phone) {
+        return new PatientSnapshot(1L, "Filter", "Test", email, phone, null);
+    }
+}
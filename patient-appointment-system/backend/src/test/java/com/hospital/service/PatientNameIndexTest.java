@@ -0,0 +1,59 @@
+package com.hospital.service;
+
+import com.hospital.event.PatientChangedEvent;
+import com.hospital.event.PatientSnapshot;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientNameIndexTest {
+
+    private final PatientNameIndex index = new PatientNameIndex();
+
+    @Test
+    void substringQueriesKeepOnlyNamesHoldingEveryTrigram() {
+        add(1L, "Ann", "Wilson");
+        add(2L, "Mary", "Wilkinson");
+        add(3L, "Ilse", "Sonnen");
+        add(4L, "Wils", "Also");
+        add(5L, "Tom", "Wilson");
+
+        assertThat(index.search("ilso", 10)).containsExactly(1L, 5L);
+        assertThat(index.search("wils", 10)).containsExactly(4L, 1L, 5L);
+        assertThat(index.search("zzqx", 10)).isEmpty();
+    }
+
+    @Test
+    void shortPrefixQueriesStopAtTheLimit() {
+        for (long id = 1; id <= 1000; id++) {
+            add(id, "Mark", "Number" + id);
+        }
+
+        List<Long> ids = index.search("ma", 5);
+
+        assertThat(ids).hasSize(5).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(index.search("n", 20)).hasSize(20);
+    }
+
+    @Test
+    void renamesAndDeletionsLeaveThePostingsConsistent() {
+        for (long id = 10; id >= 1; id--) {
+            add(id, "Sam", "Porter");
+        }
+        index.onPatientChanged(PatientChangedEvent.updated(snapshot(4L, "Sam", "Porter"), snapshot(4L, "Sam", "Carter")));
+        index.onPatientChanged(PatientChangedEvent.deleted(snapshot(7L, "Sam", "Porter")));
+
+        assertThat(index.search("porter", 20)).containsExactly(1L, 2L, 3L, 5L, 6L, 8L, 9L, 10L);
+        assertThat(index.search("carter", 20)).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(9);
+    }
+
+    private void add(long id, String firstName, String lastName) {
+        index.onPatientChanged(PatientChangedEvent.created(snapshot(id, firstName, lastName)));
+    }
+
+    private static PatientSnapshot snapshot(long id, String firstName, String lastName) {
+        return new PatientSnapshot(id, firstName, lastName, id + "@example.com", null, null);
+    }
+}
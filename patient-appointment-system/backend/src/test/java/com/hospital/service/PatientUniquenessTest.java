@@ -0,0 +1,101 @@
+package com.hospital.service;
+
+import com.hospital.dto.ImportResult;
+import com.hospital.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Duplicates the contact filter cannot know about, as when another instance wrote them:
+ * the rows are inserted with plain JDBC, so only the unique keys catch them.
+ */
+@SpringBootTest
+class PatientUniquenessTest {
+
+    // Far above anything the sequences hand out while the other tests run
+    private static final long FIRST_ID = 60_000_000L;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String unique;
+
+    private long phones;
+
+    @BeforeEach
+    void setUp() {
+        unique = UUID.randomUUID().toString().substring(0, 8);
+        phones = 4_000_000_000L + (UUID.randomUUID().getMostSignificantBits() & 0x3fffffffL);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM patients WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void createReportsEmailTakenElsewhere() {
+        insertElsewhere(FIRST_ID, email("taken"), phone(0));
+
+        assertThatThrownBy(() -> patientService.createPatient(patient(email("taken"), phone(1))))
+                .hasMessage("Patient with email " + email("taken") + " already exists");
+    }
+
+    @Test
+    void updateReportsPhoneTakenElsewhere() {
+        insertElsewhere(FIRST_ID, email("other"), phone(0));
+        Patient patient = patientService.createPatient(patient(email("mine"), phone(1)));
+
+        assertThatThrownBy(() -> patientService.updatePatient(patient.getId(), patient(email("mine"), phone(0))))
+                .hasMessage("Patient with phone " + phone(0) + " already exists");
+    }
+
+    @Test
+    void importReportsRowsTakenElsewhereAndKeepsTheRest() {
+        insertElsewhere(FIRST_ID, email("first"), phone(0));
+        insertElsewhere(FIRST_ID + 1, email("second"), phone(1));
+
+        ImportResult result = patientService.importPatients(List.of(
+                patient(email("first"), phone(2)),
+                patient(email("third"), phone(1)),
+                patient(email("fourth"), phone(3))));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).extracting(ImportResult.RowError::index).containsExactly(0, 1);
+        assertThat(result.errors()).extracting(ImportResult.RowError::message).containsExactly(
+                "Patient with email " + email("first") + " already exists",
+                "Patient with phone " + phone(1) + " already exists");
+        assertThat(patientService.getPatientByEmail(email("fourth"))).isPresent();
+    }
+
+    private void insertElsewhere(long id, String email, String phone) {
+        jdbcTemplate.update("INSERT INTO patients (id, first_name, last_name, email, phone, date_of_birth, gender, " +
+                "created_at, updated_at) VALUES (?, 'Other', 'Instance', ?, ?, DATE '1980-01-01', 'Other', " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", id, email, phone);
+    }
+
+    private Patient patient(String email, String phone) {
+        return new Patient("Unique", "Test", email, phone, LocalDate.of(1980, 1, 1), "Other");
+    }
+
+    private String email(String name) {
+        return name + "-" + unique + "@example.com";
+    }
+
+    private String phone(int offset) {
+        return String.valueOf(phones + offset);
+    }
+}
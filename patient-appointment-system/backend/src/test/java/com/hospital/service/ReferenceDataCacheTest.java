@@ -0,0 +1,72 @@
+package com.hospital.service;
+
+import com.hospital.config.CacheConfig;
+import com.hospital.model.Appointment;
+import com.hospital.model.Patient;
+import com.hospital.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void loadThatReadBeforeCommitDoesNotOutliveTheEviction() throws Exception {
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        long phone = 3_000_000_000L + (UUID.randomUUID().getMostSignificantBits() & 0x7fffffffL);
+        Patient patient = patientService.createPatient(new Patient("Cache", "Test", unique + "@example.com",
+                String.valueOf(phone), LocalDate.of(1980, 1, 1), "Other"));
+        String doctorName = "Dr. Cache " + unique;
+        Cache doctors = cacheManager.getCache(CacheConfig.DOCTORS_CACHE);
+        doctors.clear();
+
+        // A load that has read the doctor list, without the new doctor, but not stored it yet
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch store = new CountDownLatch(1);
+        CompletableFuture<List<String>> load = CompletableFuture.supplyAsync(() -> doctors.get(SimpleKey.EMPTY, () -> {
+            loading.countDown();
+            store.await();
+            return List.of("Dr. Stale");
+        }));
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Appointment> booking = CompletableFuture.supplyAsync(() -> appointmentService.createAppointment(
+                new Appointment(patient, doctorName, "Cardiology",
+                        LocalDateTime.now().plusDays(20).truncatedTo(ChronoUnit.HOURS), "Consultation")));
+        while (!appointmentRepository.findAllDoctorNames().contains(doctorName)) {
+            Thread.sleep(10);
+        }
+        store.countDown();
+        load.get(10, TimeUnit.SECONDS);
+        booking.get(10, TimeUnit.SECONDS);
+
+        assertThat(doctors.get(SimpleKey.EMPTY)).isNull();
+        assertThat(appointmentService.getAllDoctors()).contains(doctorName);
+    }
+}
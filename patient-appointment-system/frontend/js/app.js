@@ -1,11 +1,111 @@
 // Patient Appointment Management System - JavaScript
 
+// Local copy of patients and appointments in IndexedDB, kept current through /changes
+class LocalStore {
+    constructor(name = 'hospital-local') {
+        this.name = name;
+        this.db = null;
+        this.opening = null;
+    }
+
+    // Resolves to false where IndexedDB is missing or blocked (e.g. private windows)
+    open() {
+        if (!this.opening) {
+            this.opening = new Promise(resolve => {
+                if (!window.indexedDB) {
+                    resolve(false);
+                    return;
+                }
+                const request = indexedDB.open(this.name, 1);
+                request.onupgradeneeded = () => {
+                    const db = request.result;
+                    db.createObjectStore('patients', { keyPath: 'id' });
+                    db.createObjectStore('appointments', { keyPath: 'id' });
+                    db.createObjectStore('meta');
+                };
+                request.onsuccess = () => {
+                    this.db = request.result;
+                    resolve(true);
+                };
+                request.onerror = () => resolve(false);
+            });
+        }
+        return this.opening;
+    }
+
+    getAll(storeName) {
+        return this.request(this.db.transaction(storeName).objectStore(storeName).getAll());
+    }
+
+    getCursor() {
+        return this.request(this.db.transaction('meta').objectStore('meta').get('cursor'));
+    }
+
+    // Rows, deletions and the new position are written in one transaction, so an
+    // interrupted sync resumes from the last change set that was stored completely
+    apply(changes) {
+        const tx = this.db.transaction(['patients', 'appointments', 'meta'], 'readwrite');
+        const patients = tx.objectStore('patients');
+        const appointments = tx.objectStore('appointments');
+        changes.patients.forEach(patient => patients.put(patient));
+        changes.appointments.forEach(appointment => {
+            // Keep only the patient id; names are joined from the patients store when
+            // rendering, so a renamed patient does not leave stale copies behind
+            const { patient, ...row } = appointment;
+            row.patientId = patient ? patient.id : null;
+            appointments.put(row);
+        });
+        changes.deletedPatients.forEach(id => patients.delete(id));
+        changes.deletedAppointments.forEach(id => appointments.delete(id));
+        tx.objectStore('meta').put(changes.next, 'cursor');
+        return this.complete(tx);
+    }
+
+    clear() {
+        const tx = this.db.transaction(['patients', 'appointments', 'meta'], 'readwrite');
+        ['patients', 'appointments', 'meta'].forEach(name => tx.objectStore(name).clear());
+        return this.complete(tx);
+    }
+
+    request(request) {
+        return new Promise((resolve, reject) => {
+            request.onsuccess = () => resolve(request.result);
+            request.onerror = () => reject(request.error);
+        });
+    }
+
+    complete(tx) {
+        return new Promise((resolve, reject) => {
+            tx.oncomplete = () => resolve();
+            tx.onerror = () => reject(tx.error);
+            tx.onabort = () => reject(tx.error);
+        });
+    }
+}
+
 class PatientAppointmentSystem {
     constructor() {
         this.apiBaseUrl = 'http://localhost:8080/api';
         this.currentSection = 'dashboard';
         this.patients = [];
         this.appointments = [];
+        this.pageSize = 100;
+        // Columns the list tables actually render
+        this.patientListFields = 'id,firstName,lastName,email,phone,dateOfBirth,gender,bloodGroup';
+        this.appointmentListFields = 'id,patient.id,patient.firstName,patient.lastName,doctorName,department,appointmentDateTime,appointmentType,status';
+        this.patientsCursor = null;
+        this.appointmentsCursor = null;
+        // Last ETag and body per GET URL, reused when the server answers 304 Not Modified
+        this.responseCache = new Map();
+        this.responseCacheLimit = 200;
+        // With a local copy the tables render from IndexedDB and only deltas are fetched
+        this.localStore = new LocalStore();
+        this.localMode = false;
+        this.syncing = null;
+        this.syncPageSize = 2000;
+        this.visibleRows = { patients: this.pageSize, appointments: this.pageSize };
+        this.liveUpdates = null;
+        this.liveRefreshTimer = null;
         
         this.init();
     }
@@ -15,6 +115,7 @@ class PatientAppointmentSystem {
         this.setupNavigation();
         this.loadInitialData();
         this.setMinDateTime();
+        this.connectLiveUpdates();
     }
 
     setupEventListeners() {
@@ -32,15 +133,19 @@ class PatientAppointmentSystem {
         document.getElementById('gender-filter').addEventListener('change', (e) => this.filterPatients());
         document.getElementById('blood-group-filter').addEventListener('change', (e) => this.filterPatients());
         document.getElementById('clear-filters').addEventListener('click', () => this.clearFilters());
+        document.getElementById('load-more-patients').addEventListener('click', () => this.loadMorePatients());
 
         // Appointment Management
         document.getElementById('save-appointment-btn').addEventListener('click', () => this.saveAppointment());
         document.getElementById('book-appointment-form').addEventListener('submit', (e) => this.bookAppointment(e));
+        document.getElementById('book-doctor-name').addEventListener('change', () => this.loadFreeSlots());
+        document.getElementById('book-appointment-date').addEventListener('change', () => this.loadFreeSlots());
         document.getElementById('clear-appointment-form').addEventListener('click', () => this.clearAppointmentForm());
         document.getElementById('appointment-status-filter').addEventListener('change', () => this.filterAppointments());
         document.getElementById('department-filter').addEventListener('change', () => this.filterAppointments());
         document.getElementById('appointment-date-filter').addEventListener('change', () => this.filterAppointments());
         document.getElementById('clear-appointment-filters').addEventListener('click', () => this.clearAppointmentFilters());
+        document.getElementById('load-more-appointments').addEventListener('click', () => this.loadMoreAppointments());
 
         // Modal events
         document.getElementById('patientModal').addEventListener('hidden.bs.modal', () => this.clearPatientForm());
@@ -84,6 +189,50 @@ class PatientAppointmentSystem {
         }
     }
 
+    // Server-sent events replace manual refreshes. ?department= or ?doctor= on the page URL
+    // narrows the stream for workstations that only show one clinic's schedule.
+    connectLiveUpdates() {
+        if (!window.EventSource) return;
+        const pageParams = new URLSearchParams(window.location.search);
+        const params = new URLSearchParams();
+        ['department', 'doctor'].forEach(name => {
+            if (pageParams.get(name)) params.set(name, pageParams.get(name));
+        });
+        const query = params.toString();
+        this.liveUpdates = new EventSource(`${this.apiBaseUrl}/events${query ? '?' + query : ''}`);
+        this.liveUpdates.addEventListener('changes', () => this.scheduleLiveRefresh());
+        // Whatever happened while disconnected is picked up by the next delta sync
+        this.liveUpdates.addEventListener('open', () => this.scheduleLiveRefresh());
+    }
+
+    scheduleLiveRefresh() {
+        // A burst of messages turns into one refresh
+        clearTimeout(this.liveRefreshTimer);
+        this.liveRefreshTimer = setTimeout(() => this.refreshCurrentSection(), 300);
+    }
+
+    async refreshCurrentSection() {
+        try {
+            if (this.currentSection === 'dashboard') {
+                await this.loadDashboardData();
+            }
+            if (this.localMode) {
+                if (!(await this.syncChanges())) return;
+                if (this.currentSection === 'patients' && !document.getElementById('patient-search').value) {
+                    await this.showLocalPatients();
+                } else if (this.currentSection === 'appointments') {
+                    await this.showLocalAppointments();
+                }
+            } else if (this.currentSection === 'patients' && !document.getElementById('patient-search').value) {
+                await this.loadPatients();
+            } else if (this.currentSection === 'appointments') {
+                await this.loadAppointments();
+            }
+        } catch (error) {
+            console.error('Error applying live updates:', error);
+        }
+    }
+
     async loadInitialData() {
         try {
             await Promise.all([
@@ -98,24 +247,17 @@ class PatientAppointmentSystem {
 
     async loadDashboardData() {
         try {
-            const [totalPatients, totalAppointments, todayAppointments, upcomingAppointments, recentAppointments, recentPatients] = await Promise.all([
-                this.apiCall('/patients/stats/total'),
-                this.apiCall('/appointments/stats/total'),
-                this.apiCall('/appointments/today'),
-                this.apiCall('/appointments/upcoming'),
-                this.apiCall('/appointments?limit=5'),
-                this.apiCall('/patients/recent?days=7')
-            ]);
+            const summary = await this.apiCall('/dashboard/summary');
 
             // Update stats cards
-            document.getElementById('total-patients').textContent = totalPatients || 0;
-            document.getElementById('total-appointments').textContent = totalAppointments || 0;
-            document.getElementById('today-appointments').textContent = (todayAppointments && todayAppointments.length) || 0;
-            document.getElementById('upcoming-appointments').textContent = (upcomingAppointments && upcomingAppointments.length) || 0;
+            document.getElementById('total-patients').textContent = summary.totalPatients || 0;
+            document.getElementById('total-appointments').textContent = summary.totalAppointments || 0;
+            document.getElementById('today-appointments').textContent = summary.todayAppointments || 0;
+            document.getElementById('upcoming-appointments').textContent = summary.upcomingAppointments || 0;
 
             // Update recent lists
-            this.displayRecentAppointments(recentAppointments || []);
-            this.displayRecentPatients(recentPatients || []);
+            this.displayRecentAppointments(summary.recentAppointments || []);
+            this.displayRecentPatients(summary.recentPatients || []);
 
         } catch (error) {
             console.error('Error loading dashboard data:', error);
@@ -176,10 +318,16 @@ class PatientAppointmentSystem {
     }
 
     async loadPatients() {
+        if (await this.useLocalCopy()) {
+            await this.refreshFromLocal(() => this.showLocalPatients(), 'patients-table-body', 'Failed to load patients');
+            return;
+        }
         try {
             this.showTableLoading('patients-table-body');
-            const patients = await this.apiCall('/patients');
-            this.patients = patients || [];
+            const page = await this.apiCall(`/patients?limit=${this.pageSize}&fields=${this.patientListFields}`);
+            this.patients = (page && page.items) || [];
+            this.patientsCursor = page ? page.nextCursor : null;
+            this.updateLoadMoreButton('load-more-patients', this.patientsCursor);
             this.displayPatients(this.patients);
         } catch (error) {
             console.error('Error loading patients:', error);
@@ -187,6 +335,25 @@ class PatientAppointmentSystem {
         }
     }
 
+    async loadMorePatients() {
+        if (this.localMode) {
+            this.visibleRows.patients += this.pageSize;
+            this.filterPatients();
+            return;
+        }
+        if (!this.patientsCursor) return;
+        try {
+            const page = await this.apiCall(`/patients?limit=${this.pageSize}&fields=${this.patientListFields}&cursor=${encodeURIComponent(this.patientsCursor)}`);
+            this.patients = this.patients.concat(page.items || []);
+            this.patientsCursor = page.nextCursor;
+            this.updateLoadMoreButton('load-more-patients', this.patientsCursor);
+            this.filterPatients();
+        } catch (error) {
+            console.error('Error loading more patients:', error);
+            this.showErrorMessage('Failed to load more patients');
+        }
+    }
+
     displayPatients(patients) {
         const tbody = document.getElementById('patients-table-body');
         
@@ -222,10 +389,16 @@ class PatientAppointmentSystem {
     }
 
     async loadAppointments() {
+        if (await this.useLocalCopy()) {
+            await this.refreshFromLocal(() => this.showLocalAppointments(), 'appointments-table-body', 'Failed to load appointments');
+            return;
+        }
         try {
             this.showTableLoading('appointments-table-body');
-            const appointments = await this.apiCall('/appointments');
-            this.appointments = appointments || [];
+            const page = await this.apiCall(`/appointments?limit=${this.pageSize}&fields=${this.appointmentListFields}`);
+            this.appointments = (page && page.items) || [];
+            this.appointmentsCursor = page ? page.nextCursor : null;
+            this.updateLoadMoreButton('load-more-appointments', this.appointmentsCursor);
             await this.loadDepartments();
             this.displayAppointments(this.appointments);
         } catch (error) {
@@ -234,6 +407,105 @@ class PatientAppointmentSystem {
         }
     }
 
+    async loadMoreAppointments() {
+        if (this.localMode) {
+            this.visibleRows.appointments += this.pageSize;
+            this.filterAppointments();
+            return;
+        }
+        if (!this.appointmentsCursor) return;
+        try {
+            const page = await this.apiCall(`/appointments?limit=${this.pageSize}&fields=${this.appointmentListFields}&cursor=${encodeURIComponent(this.appointmentsCursor)}`);
+            this.appointments = this.appointments.concat(page.items || []);
+            this.appointmentsCursor = page.nextCursor;
+            this.updateLoadMoreButton('load-more-appointments', this.appointmentsCursor);
+            this.filterAppointments();
+        } catch (error) {
+            console.error('Error loading more appointments:', error);
+            this.showErrorMessage('Failed to load more appointments');
+        }
+    }
+
+    updateLoadMoreButton(buttonId, cursor) {
+        document.getElementById(buttonId).classList.toggle('d-none', !cursor);
+    }
+
+    // Local copy and delta sync
+    async useLocalCopy() {
+        this.localMode = await this.localStore.open();
+        return this.localMode;
+    }
+
+    async refreshFromLocal(show, tableBodyId, errorMessage) {
+        try {
+            // Paint what is stored right away, then again once the deltas are in
+            await show();
+            if (await this.syncChanges()) {
+                await show();
+            }
+        } catch (error) {
+            console.error(errorMessage, error);
+            this.showTableError(tableBodyId, errorMessage);
+        }
+    }
+
+    // Pulls /changes until caught up; resolves to whether anything was applied
+    syncChanges() {
+        if (!this.syncing) {
+            this.syncing = this.pullChanges().finally(() => {
+                this.syncing = null;
+            });
+        }
+        return this.syncing;
+    }
+
+    async pullChanges() {
+        let changed = false;
+        let cursor = await this.localStore.getCursor();
+        let changes;
+        do {
+            const since = cursor ? `&since=${encodeURIComponent(cursor)}` : '';
+            changes = await this.apiCall(`/changes?limit=${this.syncPageSize}${since}`);
+            if (changes.resync) {
+                // Offline longer than deletions are kept: start again from an empty copy
+                await this.localStore.clear();
+                cursor = null;
+                changed = true;
+                continue;
+            }
+            await this.localStore.apply(changes);
+            cursor = changes.next;
+            changed = changed || changes.patients.length > 0 || changes.appointments.length > 0 ||
+                changes.deletedPatients.length > 0 || changes.deletedAppointments.length > 0;
+        } while (changes.resync || changes.hasMore);
+        return changed;
+    }
+
+    async showLocalPatients() {
+        const patients = await this.localStore.getAll('patients');
+        // Same order as the server listing
+        this.patients = patients.sort((a, b) => this.compareBy(a.createdAt, b.createdAt) || a.id - b.id);
+        this.filterPatients();
+    }
+
+    async showLocalAppointments() {
+        const [appointments, patients] = await Promise.all([
+            this.localStore.getAll('appointments'),
+            this.localStore.getAll('patients')
+        ]);
+        const patientsById = new Map(patients.map(patient => [patient.id, patient]));
+        this.appointments = appointments
+            .map(appointment => ({ ...appointment, patient: patientsById.get(appointment.patientId) || { id: appointment.patientId } }))
+            .sort((a, b) => this.compareBy(a.appointmentDateTime, b.appointmentDateTime) || a.id - b.id);
+        await this.loadDepartments();
+        this.filterAppointments();
+    }
+
+    compareBy(a, b) {
+        // Timestamps are 'yyyy-MM-dd HH:mm:ss', so string order is time order
+        return a < b ? -1 : a > b ? 1 : 0;
+    }
+
     async loadDepartments() {
         try {
             const departments = await this.apiCall('/appointments/departments');
@@ -286,7 +558,8 @@ class PatientAppointmentSystem {
 
     async loadPatientsForSelect() {
         try {
-            const patients = await this.apiCall('/patients');
+            const page = await this.apiCall('/patients?limit=500&fields=id,firstName,lastName');
+            const patients = page && page.items;
             const selects = [
                 document.getElementById('book-patient-select'),
                 document.getElementById('modal-patient-select')
@@ -305,6 +578,22 @@ class PatientAppointmentSystem {
         }
     }
 
+    // Suggests the doctor's free times for the chosen day in the booking form
+    async loadFreeSlots() {
+        const doctor = document.getElementById('book-doctor-name').value.trim();
+        const date = document.getElementById('book-appointment-date').value;
+        const list = document.getElementById('book-free-slots');
+        list.innerHTML = '';
+        if (!doctor || !date) return;
+        try {
+            const availability = await this.apiCall(`/appointments/availability?doctor=${encodeURIComponent(doctor)}&from=${date}&to=${date}`);
+            const day = availability && availability[0] && availability[0].days[0];
+            list.innerHTML = (day ? day.freeSlots : []).map(time => `<option value="${time}">`).join('');
+        } catch (error) {
+            console.error('Error loading free slots:', error);
+        }
+    }
+
     // Patient CRUD Operations
     async savePatient() {
         try {
@@ -526,6 +815,7 @@ class PatientAppointmentSystem {
 
     clearAppointmentForm() {
         document.getElementById('book-appointment-form').reset();
+        document.getElementById('book-free-slots').innerHTML = '';
     }
 
     clearAppointmentModalForm() {
@@ -536,19 +826,22 @@ class PatientAppointmentSystem {
 
     // Filtering and Search
     searchPatients(query) {
+        clearTimeout(this.searchTimer);
         if (!query) {
-            this.displayPatients(this.patients);
+            this.filterPatients();
             return;
         }
 
-        const filtered = this.patients.filter(patient => 
-            patient.firstName.toLowerCase().includes(query.toLowerCase()) ||
-            patient.lastName.toLowerCase().includes(query.toLowerCase()) ||
-            patient.email.toLowerCase().includes(query.toLowerCase()) ||
-            patient.phone.includes(query)
-        );
-
-        this.displayPatients(filtered);
+        // Debounce keystrokes; the server ranks matches from its name index
+        this.searchTimer = setTimeout(async () => {
+            try {
+                const patients = await this.apiCall(`/patients/search?name=${encodeURIComponent(query)}&limit=50`);
+                this.displayPatients(patients || []);
+            } catch (error) {
+                console.error('Error searching patients:', error);
+                this.showTableError('patients-table-body', 'Failed to search patients');
+            }
+        }, 200);
     }
 
     filterPatients() {
@@ -565,6 +858,10 @@ class PatientAppointmentSystem {
             filtered = filtered.filter(patient => patient.bloodGroup === bloodGroup);
         }
 
+        if (this.localMode) {
+            this.updateLoadMoreButton('load-more-patients', filtered.length > this.visibleRows.patients);
+            filtered = filtered.slice(0, this.visibleRows.patients);
+        }
         this.displayPatients(filtered);
     }
 
@@ -590,6 +887,10 @@ class PatientAppointmentSystem {
             });
         }
 
+        if (this.localMode) {
+            this.updateLoadMoreButton('load-more-appointments', filtered.length > this.visibleRows.appointments);
+            filtered = filtered.slice(0, this.visibleRows.appointments);
+        }
         this.displayAppointments(filtered);
     }
 
@@ -597,14 +898,14 @@ class PatientAppointmentSystem {
         document.getElementById('patient-search').value = '';
         document.getElementById('gender-filter').value = '';
         document.getElementById('blood-group-filter').value = '';
-        this.displayPatients(this.patients);
+        this.filterPatients();
     }
 
     clearAppointmentFilters() {
         document.getElementById('appointment-status-filter').value = '';
         document.getElementById('department-filter').value = '';
         document.getElementById('appointment-date-filter').value = '';
-        this.displayAppointments(this.appointments);
+        this.filterAppointments();
     }
 
     // Utility Methods
@@ -621,19 +922,41 @@ class PatientAppointmentSystem {
             options.body = JSON.stringify(data);
         }
 
+        const cached = method === 'GET' ? this.responseCache.get(url) : undefined;
+        if (cached) {
+            options.headers['If-None-Match'] = cached.etag;
+        }
+
         const response = await fetch(url, options);
         
+        if (response.status === 304 && cached) {
+            return cached.body;
+        }
+        
         if (!response.ok) {
             const errorText = await response.text();
             throw new Error(errorText || `HTTP error! status: ${response.status}`);
         }
 
         const contentType = response.headers.get('content-type');
-        if (contentType && contentType.includes('application/json')) {
-            return await response.json();
-        }
+        const body = contentType && contentType.includes('application/json')
+            ? await response.json()
+            : await response.text();
         
-        return await response.text();
+        const etag = response.headers.get('ETag');
+        if (method === 'GET' && etag) {
+            this.cacheResponse(url, etag, body);
+        }
+        return body;
+    }
+
+    cacheResponse(url, etag, body) {
+        // Re-inserting keeps the Map in least-recently-stored order, so the oldest entry goes first
+        this.responseCache.delete(url);
+        this.responseCache.set(url, { etag, body });
+        if (this.responseCache.size > this.responseCacheLimit) {
+            this.responseCache.delete(this.responseCache.keys().next().value);
+        }
     }
 
     setMinDateTime() {